@@ -0,0 +1,43 @@
+package gc;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * The allocating part of one churner thread's cycle, the time it then spends waiting at the barrier is not in it.
+ */
+@Name(AllocationPhaseEvent.NAME)
+@Label("Allocation Phase")
+@Category({"Benchmark", "Object Churner"})
+@Description("One churner thread walking the size list once")
+class AllocationPhaseEvent extends Event {
+
+    static final String NAME = "gc.AllocationPhase";
+
+    @Label("Cycle")
+    int cycle;
+
+    @Label("Allocations")
+    long allocations;
+
+    @Label("Allocated")
+    @DataAmount(DataAmount.BYTES)
+    long allocated;
+
+    @Label("Retained")
+    @Description("Allocations kept in the live set ring")
+    long retained;
+
+    @Label("Humongous Allocations")
+    long humongousAllocations;
+
+    @Label("Paced")
+    @Description("Time parked to hold the target allocation rate")
+    @Timespan(Timespan.NANOSECONDS)
+    long paced;
+}
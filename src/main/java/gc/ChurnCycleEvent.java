@@ -0,0 +1,35 @@
+package gc;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * One {@link ObjectChurner} cycle, from the moment the churners start allocating until the last one reaches the
+ * barrier. Its start and end are what {@link ChurnRecordingAnalyzer} buckets the collector's events by.
+ */
+@Name(ChurnCycleEvent.NAME)
+@Label("Churn Cycle")
+@Category({"Benchmark", "Object Churner"})
+@Description("One pass of every churner thread over the workload profile")
+class ChurnCycleEvent extends Event {
+
+    static final String NAME = "gc.ChurnCycle";
+
+    @Label("Cycle")
+    int cycle;
+
+    @Label("Threads")
+    int threads;
+
+    @Label("Allocated")
+    @DataAmount(DataAmount.BYTES)
+    long allocated;
+
+    @Label("Humongous Allocations")
+    @Description("Allocations of at least half a G1 region")
+    long humongousAllocations;
+}
@@ -0,0 +1,220 @@
+package gc;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedObject;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Reads a recording made by {@code java gc.ObjectChurner profile.properties recording.jfr} and prints, per churn
+ * cycle, what the workload did next to what the collector did meanwhile: allocation rate, stop-the-world pauses,
+ * bytes promoted into old regions and humongous regions taken. Collector events are put in the cycle they started
+ * in, anything outside every cycle (JVM startup, the last collections at exit) is left out.
+ * <p>
+ * Promoted bytes and humongous regions come from G1-only events and show as 0 with any other collector.
+ */
+// java gc.ChurnRecordingAnalyzer recording.jfr
+public class ChurnRecordingAnalyzer {
+
+    private static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+    private static final String OLD_EVACUATION = "jdk.G1EvacuationOldStatistics";
+    private static final String REGION_TYPE_CHANGE = "jdk.G1HeapRegionTypeChange";
+
+    public static void main(String... args) throws IOException {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: java gc.ChurnRecordingAnalyzer recording.jfr");
+        }
+        List<Cycle> cycles = analyze(Path.of(args[0]));
+        if (cycles.isEmpty()) {
+            System.out.println("no " + ChurnCycleEvent.NAME + " events, was the recording made by ObjectChurner?");
+            return;
+        }
+        Cycle total = new Cycle(-1, cycles.get(0).start, cycles.get(cycles.size() - 1).end);
+        for (Cycle cycle : cycles) {
+            System.out.println(cycle);
+            total.add(cycle);
+        }
+        System.out.println(total);
+    }
+
+    public static List<Cycle> analyze(Path recording) throws IOException {
+        List<RecordedEvent> collectorEvents = new ArrayList<>();
+        List<RecordedEvent> phases = new ArrayList<>();
+        List<Cycle> cycles = new ArrayList<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                switch (event.getEventType().getName()) {
+                    case ChurnCycleEvent.NAME -> {
+                        Cycle cycle = new Cycle(event.getInt("cycle"), event.getStartTime(), event.getEndTime());
+                        cycle.allocatedBytes = event.getLong("allocated");
+                        cycle.humongousAllocations = event.getLong("humongousAllocations");
+                        cycles.add(cycle);
+                    }
+                    case AllocationPhaseEvent.NAME -> phases.add(event);
+                    case GARBAGE_COLLECTION, OLD_EVACUATION, REGION_TYPE_CHANGE -> collectorEvents.add(event);
+                    default -> {
+                    }
+                }
+            }
+        }
+        // events come out per chunk and per thread buffer, not in time order
+        cycles.sort(Comparator.comparing(cycle -> cycle.start));
+        Map<Integer, Cycle> byNumber = new TreeMap<>();
+        for (Cycle cycle : cycles) {
+            byNumber.put(cycle.number, cycle);
+        }
+        for (RecordedEvent phase : phases) {
+            Cycle cycle = byNumber.get(phase.getInt("cycle"));
+            if (cycle != null) {
+                cycle.addPhase(phase.getDuration());
+            }
+        }
+        for (RecordedEvent event : collectorEvents) {
+            Cycle cycle = cycleAt(cycles, event.getStartTime());
+            if (cycle == null) {
+                continue;
+            }
+            switch (event.getEventType().getName()) {
+                case GARBAGE_COLLECTION -> cycle.addCollection(event.getDuration("sumOfPauses"),
+                        event.getDuration("longestPause"));
+                case OLD_EVACUATION -> {
+                    RecordedObject statistics = event.getValue("statistics");
+                    // copied into old regions through PLABs plus whatever was too big for one
+                    cycle.promotedBytes += statistics.getLong("used") + statistics.getLong("directAllocated");
+                }
+                default -> {
+                    String to = event.getString("to");
+                    if (to.endsWith("Humongous") && !event.getString("from").endsWith("Humongous")) {
+                        cycle.humongousRegions++;
+                    }
+                }
+            }
+        }
+        return cycles;
+    }
+
+    // cycles are sorted and do not overlap, the one starting last at or before the instant is the only candidate
+    private static Cycle cycleAt(List<Cycle> cycles, Instant instant) {
+        int low = 0;
+        int high = cycles.size() - 1;
+        Cycle candidate = null;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (cycles.get(mid).start.isAfter(instant)) {
+                high = mid - 1;
+            } else {
+                candidate = cycles.get(mid);
+                low = mid + 1;
+            }
+        }
+        return candidate != null && !candidate.end.isBefore(instant) ? candidate : null;
+    }
+
+    public static final class Cycle {
+        private final int number;
+        private final Instant start;
+        private final Instant end;
+        private long allocatedBytes;
+        private long humongousAllocations;
+        private int pauses;
+        private Duration pauseTotal = Duration.ZERO;
+        private Duration pauseMax = Duration.ZERO;
+        private long promotedBytes;
+        private long humongousRegions;
+        private int phases;
+        private Duration phaseMin;
+        private Duration phaseMax = Duration.ZERO;
+
+        private Cycle(int number, Instant start, Instant end) {
+            this.number = number;
+            this.start = start;
+            this.end = end;
+        }
+
+        private void addCollection(Duration sumOfPauses, Duration longestPause) {
+            pauses++;
+            pauseTotal = pauseTotal.plus(sumOfPauses);
+            if (longestPause.compareTo(pauseMax) > 0) {
+                pauseMax = longestPause;
+            }
+        }
+
+        private void addPhase(Duration duration) {
+            phases++;
+            if (phaseMin == null || duration.compareTo(phaseMin) < 0) {
+                phaseMin = duration;
+            }
+            if (duration.compareTo(phaseMax) > 0) {
+                phaseMax = duration;
+            }
+        }
+
+        private void add(Cycle other) {
+            allocatedBytes += other.allocatedBytes;
+            humongousAllocations += other.humongousAllocations;
+            pauses += other.pauses;
+            pauseTotal = pauseTotal.plus(other.pauseTotal);
+            if (other.pauseMax.compareTo(pauseMax) > 0) {
+                pauseMax = other.pauseMax;
+            }
+            promotedBytes += other.promotedBytes;
+            humongousRegions += other.humongousRegions;
+            if (other.phases > 0) {
+                phases += other.phases;
+                phaseMin = phaseMin == null || other.phaseMin.compareTo(phaseMin) < 0 ? other.phaseMin : phaseMin;
+                phaseMax = other.phaseMax.compareTo(phaseMax) > 0 ? other.phaseMax : phaseMax;
+            }
+        }
+
+        public int number() {
+            return number;
+        }
+
+        public Duration duration() {
+            return Duration.between(start, end);
+        }
+
+        public long allocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public int pauses() {
+            return pauses;
+        }
+
+        public Duration pauseTotal() {
+            return pauseTotal;
+        }
+
+        public long promotedBytes() {
+            return promotedBytes;
+        }
+
+        public long humongousRegions() {
+            return humongousRegions;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = duration().toNanos() / 1e9;
+            double megabytes = allocatedBytes / (1024.0 * 1024.0);
+            return String.format("%s: %.1f MB in %.2f s = %.1f MB/s, %d pauses (total %.1f ms, %.1f%% of cycle, "
+                            + "max %.1f ms), promoted %.1f MB, humongous %d allocations in %d regions, "
+                            + "%d allocation phases %.2f..%.2f s",
+                    number < 0 ? "all cycles" : "cycle " + number, megabytes, seconds, megabytes / seconds, pauses,
+                    pauseTotal.toNanos() / 1e6, pauseTotal.toNanos() / 1e7 / seconds, pauseMax.toNanos() / 1e6,
+                    promotedBytes / (1024.0 * 1024.0), humongousAllocations, humongousRegions, phases,
+                    phaseMin == null ? 0 : phaseMin.toNanos() / 1e9, phaseMax.toNanos() / 1e9);
+        }
+    }
+}
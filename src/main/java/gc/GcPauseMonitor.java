@@ -0,0 +1,94 @@
+package gc;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Collects the duration of every GC pause reported through the {@link GarbageCollectorMXBean} notifications.
+ * Beans for concurrent cycles (G1 Concurrent GC, ZGC Cycles, ...) are skipped as they don't stop the world.
+ */
+public class GcPauseMonitor implements AutoCloseable {
+
+    private final ConcurrentLinkedQueue<Long> pauses = new ConcurrentLinkedQueue<>();
+    private final List<NotificationEmitter> emitters = new ArrayList<>();
+    private final NotificationListener listener = this::onNotification;
+
+    public GcPauseMonitor() {
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            String name = bean.getName();
+            if (name.contains("Concurrent") || name.contains("Cycles")) {
+                continue;
+            }
+            if (bean instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(listener, null, null);
+                emitters.add(emitter);
+            }
+        }
+    }
+
+    private void onNotification(Notification notification, Object handback) {
+        if (GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            pauses.add(info.getGcInfo().getDuration());
+        }
+    }
+
+    /**
+     * @return pause durations in milliseconds seen since the previous drain, sorted ascending
+     */
+    public long[] drain() {
+        List<Long> drained = new ArrayList<>();
+        Long pause;
+        while ((pause = pauses.poll()) != null) {
+            drained.add(pause);
+        }
+        long[] result = drained.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    public static long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(rank - 1, 0)];
+    }
+
+    /**
+     * @return objects at least this big are humongous, or {@code Integer.MAX_VALUE} when not running on G1
+     */
+    public static int humongousThreshold() {
+        HotSpotDiagnosticMXBean diagnostic = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+        if (!Boolean.parseBoolean(diagnostic.getVMOption("UseG1GC").getValue())) {
+            return Integer.MAX_VALUE;
+        }
+        long regionSize = Long.parseLong(diagnostic.getVMOption("G1HeapRegionSize").getValue());
+        return (int) (regionSize / 2);
+    }
+
+    @Override
+    public void close() {
+        for (NotificationEmitter emitter : emitters) {
+            try {
+                emitter.removeNotificationListener(listener);
+            } catch (ListenerNotFoundException ignored) {
+                // already gone
+            }
+        }
+        emitters.clear();
+    }
+}
@@ -0,0 +1,267 @@
+package gc;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Log-linear histogram of non-negative longs, usually nanoseconds, in the spirit of HdrHistogram: values below
+ * {@code 2^precisionBits} get a bucket each, above that every power of two is split into {@code 2^(precisionBits-1)}
+ * equal buckets, so any value is off by at most {@code 1/2^(precisionBits-1)} of itself, 0.8% with the default 8 bits.
+ * The whole long range fits in a few thousand buckets, there is no highest trackable value to pick.
+ * <p>
+ * Not thread-safe, concurrent recording goes through {@link LatencyRecorder} which hands these out as snapshots.
+ */
+public final class LatencyHistogram {
+
+    public static final int DEFAULT_PRECISION_BITS = 8;
+
+    private static final int MAGIC = 0x4C484931;
+
+    private final int precisionBits;
+    private final long[] counts;
+    private long startMillis;
+    private long endMillis;
+
+    public LatencyHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    public LatencyHistogram(int precisionBits) {
+        this(precisionBits, new long[bucketCount(precisionBits)], 0, 0);
+    }
+
+    LatencyHistogram(int precisionBits, long[] counts, long startMillis, long endMillis) {
+        this.precisionBits = precisionBits;
+        this.counts = counts;
+        this.startMillis = startMillis;
+        this.endMillis = endMillis;
+    }
+
+    static int bucketCount(int precisionBits) {
+        if (precisionBits < 2 || precisionBits > 14) {
+            throw new IllegalArgumentException("Precision must be between 2 and 14 bits");
+        }
+        // linear buckets, then half as many again for each remaining power of two up to 2^63
+        return (1 << precisionBits) + (63 - precisionBits) * (1 << (precisionBits - 1));
+    }
+
+    static int bucket(long value, int precisionBits) {
+        if (value < (1L << precisionBits)) {
+            return value < 0 ? 0 : (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - precisionBits;
+        int half = 1 << (precisionBits - 1);
+        return (1 << precisionBits) + (shift - 1) * half + (int) (value >>> shift) - half;
+    }
+
+    static long lowestValue(int bucket, int precisionBits) {
+        if (bucket < (1 << precisionBits)) {
+            return bucket;
+        }
+        int half = 1 << (precisionBits - 1);
+        int linear = bucket - (1 << precisionBits);
+        return (long) (linear % half + half) << (linear / half + 1);
+    }
+
+    static long highestValue(int bucket, int precisionBits) {
+        if (bucket < (1 << precisionBits)) {
+            return bucket;
+        }
+        int shift = (bucket - (1 << precisionBits)) / (1 << (precisionBits - 1)) + 1;
+        return lowestValue(bucket, precisionBits) + (1L << shift) - 1;
+    }
+
+    public void record(long value) {
+        counts[bucket(value, precisionBits)]++;
+    }
+
+    /**
+     * Adds the other histogram's counts into this one and widens the interval to cover both.
+     */
+    public LatencyHistogram add(LatencyHistogram other) {
+        if (other.precisionBits != precisionBits) {
+            throw new IllegalArgumentException("Cannot merge histograms of different precision");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        if (other.count() > 0 || other.startMillis != 0) {
+            startMillis = startMillis == 0 ? other.startMillis : Math.min(startMillis, other.startMillis);
+            endMillis = Math.max(endMillis, other.endMillis);
+        }
+        return this;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        startMillis = 0;
+        endMillis = 0;
+    }
+
+    public int precisionBits() {
+        return precisionBits;
+    }
+
+    /**
+     * @return epoch millis the recording interval started, 0 when not taken from a recorder
+     */
+    public long startMillis() {
+        return startMillis;
+    }
+
+    public long endMillis() {
+        return endMillis;
+    }
+
+    public long count() {
+        long count = 0;
+        for (long bucket : counts) {
+            count += bucket;
+        }
+        return count;
+    }
+
+    /**
+     * @return the highest value equivalent to the one at this percentile, 0 when empty
+     */
+    public long valueAtPercentile(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        // same nearest-rank definition as GcPauseMonitor.percentile
+        long rank = Math.max((long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count), 1);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return highestValue(i, precisionBits);
+            }
+        }
+        throw new IllegalStateException("Counts changed while reading");
+    }
+
+    public long min() {
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                return lowestValue(i, precisionBits);
+            }
+        }
+        return 0;
+    }
+
+    public long max() {
+        for (int i = counts.length - 1; i >= 0; i--) {
+            if (counts[i] != 0) {
+                return highestValue(i, precisionBits);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * @return mean of the bucket midpoints
+     */
+    public double mean() {
+        long count = 0;
+        double total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                count += counts[i];
+                total += counts[i] * ((lowestValue(i, precisionBits) + (double) highestValue(i, precisionBits)) / 2);
+            }
+        }
+        return count == 0 ? 0 : total / count;
+    }
+
+    /**
+     * Magic, precision and interval, then a varint run of empty buckets to skip and a varint count for every
+     * non-empty bucket. A latency distribution spanning two orders of magnitude takes about 2kb, against 57kb of raw
+     * counts.
+     */
+    public byte[] toBytes() {
+        int nonEmpty = 0;
+        for (long bucket : counts) {
+            if (bucket != 0) {
+                nonEmpty++;
+            }
+        }
+        ByteBuffer out = ByteBuffer.allocate(Integer.BYTES + 1 + 2 * Long.BYTES + nonEmpty * 2 * 10);
+        out.putInt(MAGIC).put((byte) precisionBits).putLong(startMillis).putLong(endMillis);
+        int last = -1;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] != 0) {
+                putVarLong(out, i - last - 1);
+                putVarLong(out, counts[i]);
+                last = i;
+            }
+        }
+        return Arrays.copyOf(out.array(), out.position());
+    }
+
+    public static LatencyHistogram fromBytes(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        if (bytes.length < Integer.BYTES + 1 + 2 * Long.BYTES || in.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not a serialized latency histogram");
+        }
+        int precisionBits = in.get();
+        LatencyHistogram histogram = new LatencyHistogram(precisionBits);
+        histogram.startMillis = in.getLong();
+        histogram.endMillis = in.getLong();
+        int bucket = -1;
+        while (in.hasRemaining()) {
+            bucket += (int) getVarLong(in) + 1;
+            if (bucket >= histogram.counts.length) {
+                throw new IllegalArgumentException("Bucket " + bucket + " out of range");
+            }
+            histogram.counts[bucket] = getVarLong(in);
+        }
+        return histogram;
+    }
+
+    private static void putVarLong(ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    private static long getVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!in.hasRemaining()) {
+                break;
+            }
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Truncated varint");
+    }
+
+    /**
+     * Percentiles of nanosecond values in the given unit, one line.
+     */
+    public String format(TimeUnit unit) {
+        double scale = unit.toNanos(1);
+        String suffix = switch (unit) {
+            case NANOSECONDS -> "ns";
+            case MICROSECONDS -> "us";
+            case MILLISECONDS -> "ms";
+            case SECONDS -> "s";
+            default -> unit.name().toLowerCase();
+        };
+        return String.format("n=%d p50=%.2f p90=%.2f p99=%.2f p99.9=%.2f max=%.2f %s", count(),
+                valueAtPercentile(50) / scale, valueAtPercentile(90) / scale, valueAtPercentile(99) / scale,
+                valueAtPercentile(99.9) / scale, max() / scale, suffix);
+    }
+
+    @Override
+    public String toString() {
+        return format(TimeUnit.NANOSECONDS);
+    }
+}
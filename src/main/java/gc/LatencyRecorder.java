@@ -0,0 +1,131 @@
+package gc;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Records latencies from many threads into {@link LatencyHistogram} buckets without locks or allocation, and lets
+ * one reader take interval snapshots while the writers carry on.
+ * <p>
+ * Every writer only ever adds to its own cumulative counts. A snapshot sums them across writers and subtracts what
+ * the previous snapshot saw, so nothing is ever reset or swapped under a writer's feet. A value recorded while a
+ * snapshot is being summed lands in this interval or the next, never in both and never lost.
+ * <p>
+ * Long-lived threads ask for their own {@link #writer()} and record with plain stores. Anything else, virtual
+ * threads in particular, calls {@link #record(long)}, which adds atomically into one of a few stripes picked by
+ * thread id, like a {@code LongAdder}.
+ */
+public final class LatencyRecorder {
+
+    private static final VarHandle COUNTS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int STRIPES = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors()) * 2, 64);
+
+    private final int precisionBits;
+    private final List<Writer> writers = new CopyOnWriteArrayList<>();
+    // created on first use, most recorders never see more than a couple of the stripes
+    private final AtomicReferenceArray<Writer> stripes = new AtomicReferenceArray<>(STRIPES);
+    private long[] previous;
+    private long previousMillis = System.currentTimeMillis();
+
+    public LatencyRecorder() {
+        this(LatencyHistogram.DEFAULT_PRECISION_BITS);
+    }
+
+    public LatencyRecorder(int precisionBits) {
+        this.precisionBits = precisionBits;
+        this.previous = new long[LatencyHistogram.bucketCount(precisionBits)];
+    }
+
+    /**
+     * @return a new writer of its own for the calling thread, which must be the only one recording through it
+     */
+    public Writer writer() {
+        Writer writer = new Writer(precisionBits, false);
+        writers.add(writer);
+        return writer;
+    }
+
+    /**
+     * Safe from any thread, costs an atomic add.
+     */
+    public void record(long value) {
+        int stripe = (int) ((Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L) >>> 58) & (STRIPES - 1);
+        Writer writer = stripes.get(stripe);
+        if (writer == null) {
+            Writer created = new Writer(precisionBits, true);
+            writer = stripes.compareAndExchange(stripe, null, created);
+            if (writer == null) {
+                writers.add(created);
+                writer = created;
+            }
+        }
+        writer.record(value);
+    }
+
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * @return everything recorded since the previous interval snapshot, or since creation for the first one
+     */
+    public synchronized LatencyHistogram intervalSnapshot() {
+        long now = System.currentTimeMillis();
+        long[] current = sum();
+        long[] interval = new long[current.length];
+        for (int i = 0; i < current.length; i++) {
+            interval[i] = current[i] - previous[i];
+        }
+        LatencyHistogram snapshot = new LatencyHistogram(precisionBits, interval, previousMillis, now);
+        previous = current;
+        previousMillis = now;
+        return snapshot;
+    }
+
+    /**
+     * @return everything recorded so far, leaves the interval alone
+     */
+    public LatencyHistogram totalSnapshot() {
+        return new LatencyHistogram(precisionBits, sum(), 0, System.currentTimeMillis());
+    }
+
+    private long[] sum() {
+        long[] total = new long[previous.length];
+        for (Writer writer : writers) {
+            long[] counts = writer.counts;
+            for (int i = 0; i < counts.length; i++) {
+                total[i] += (long) COUNTS.getOpaque(counts, i);
+            }
+        }
+        return total;
+    }
+
+    public static final class Writer {
+        private final int precisionBits;
+        private final long[] counts;
+        private final boolean shared;
+
+        private Writer(int precisionBits, boolean shared) {
+            this.precisionBits = precisionBits;
+            this.counts = new long[LatencyHistogram.bucketCount(precisionBits)];
+            this.shared = shared;
+        }
+
+        public void record(long value) {
+            int bucket = LatencyHistogram.bucket(value, precisionBits);
+            if (shared) {
+                COUNTS.getAndAdd(counts, bucket, 1L);
+            } else {
+                // single writer, an opaque store is enough for the reader to never see a torn or stale-forever count
+                COUNTS.setOpaque(counts, bucket, counts[bucket] + 1);
+            }
+        }
+
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+    }
+}
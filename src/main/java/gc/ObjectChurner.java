@@ -1,61 +1,189 @@
 package gc;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Random;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.SplittableRandom;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 // -Xlog:gc,gc+cpu::uptime -Xmx4g -Xms4g -Xlog:gc*:details.vgc
+// java gc.ObjectChurner [profile.properties [recording.jfr]], defaults to gc/default-workload.properties
+// with a recording file, cycles and allocation phases go to JFR next to the GC events, see ChurnRecordingAnalyzer
 public class ObjectChurner {
     // 4GB heap, 2048 regions, 2mb each
     // humongous objects: 10*1mb, 5*2mb, 3*10mb, 1*50mb
     // largish objects: 10_000*100kb, 10_000*10kb, 100_000*1kb
     // smaller objects: 100_000*100, 100_000*10, 100_000*1
-    private final int[] sizes;
-    private final byte[][] data = new byte[1 * 1024 * 1024][];
-    private int nextPos = 0;
+    private final WorkloadProfile profile;
+    private final int humongousThreshold = GcPauseMonitor.humongousThreshold();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private final LongAdder humongousAllocations = new LongAdder();
+    private final GcPauseMonitor pauses = new GcPauseMonitor();
+    private final LatencyRecorder allocationLatency = new LatencyRecorder();
+    private final CyclicBarrier cycleEnd;
+    private long cycleStart;
+    private ChurnCycleEvent cycleEvent;
+    private int cycle;
 
     public ObjectChurner() {
-        List<Integer> sizes = new ArrayList<>();
-        // humongous objects
-        add(sizes, 10, 1024 * 1024);
-        add(sizes, 5, 2 * 1024 * 1024);
-        add(sizes, 3, 10 * 1024 * 1024);
-        add(sizes, 1, 50 * 1024 * 1024);
-
-        // largish objects:
-        add(sizes, 10_000, 100 * 1024);
-        add(sizes, 10_000, 10 * 1024);
-        add(sizes, 100_000, 1 * 1024);
-
-        // largish objects:
-        add(sizes, 100_000, 100);
-        add(sizes, 100_000, 10);
-        add(sizes, 100_000, 1);
-
-        Collections.shuffle(sizes, new Random(0));
-        this.sizes = sizes.stream()
-                .mapToInt(Integer::intValue)
-                .toArray();
+        this(WorkloadProfile.defaults());
+    }
+
+    public ObjectChurner(WorkloadProfile profile) {
+        this.profile = profile;
+        this.cycleEnd = new CyclicBarrier(profile.threads(), this::report);
     }
 
-    public static void main(String... args) {
-        ObjectChurner churner = new ObjectChurner();
-        churner.churn();
+    public static void main(String... args) throws InterruptedException, IOException, ParseException {
+        WorkloadProfile profile = args.length > 0 ? WorkloadProfile.load(Path.of(args[0])) : WorkloadProfile.defaults();
+        ObjectChurner churner = new ObjectChurner(profile);
+        if (args.length < 2) {
+            churner.churn();
+            return;
+        }
+        try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+            // off in every shipped configuration, but the only way to see humongous regions come and go
+            recording.enable("jdk.G1HeapRegionTypeChange");
+            recording.enable(ChurnCycleEvent.class);
+            recording.enable(AllocationPhaseEvent.class);
+            recording.setDestination(Path.of(args[1]));
+            recording.start();
+            churner.churn();
+            recording.stop();
+        }
+        System.out.println("recording written to " + args[1]);
     }
 
-    private void add(List<Integer> sizes, int number, int size) {
-        for (int i = 0; i < number; i++) {
-            sizes.add(size);
+    private void churn() throws InterruptedException {
+        Thread[] threads = new Thread[profile.threads()];
+        cycleStart = System.nanoTime();
+        cycleEvent = new ChurnCycleEvent();
+        cycleEvent.begin();
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(new Churner(i), "churner-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
         }
+        pauses.close();
     }
 
-    private void churn() {
-        for (int i = 0; i < 10; i++) {
-            for (int size : sizes) {
-                data[nextPos++ & (data.length - 1)] = new byte[size];
+    // runs on the last thread to reach the barrier, so everyone else is parked
+    private void report() {
+        long now = System.nanoTime();
+        double seconds = (now - cycleStart) / 1e9;
+        long allocated = allocatedBytes.sumThenReset();
+        long humongous = humongousAllocations.sumThenReset();
+        cycleEvent.cycle = cycle;
+        cycleEvent.threads = profile.threads();
+        cycleEvent.allocated = allocated;
+        cycleEvent.humongousAllocations = humongous;
+        cycleEvent.commit();
+        double megabytes = allocated / (1024.0 * 1024.0);
+        long[] sorted = pauses.drain();
+        long pauseTotal = 0;
+        for (long pause : sorted) {
+            pauseTotal += pause;
+        }
+        System.out.printf("cycle %d: %.1f MB in %.2f s = %.1f MB/s, humongous allocations %d, "
+                        + "%d pauses (total %d ms, %.1f%% of cycle) p50=%d p90=%d p99=%d max=%d ms%n",
+                cycle++, megabytes, seconds, megabytes / seconds, humongous,
+                sorted.length, pauseTotal, pauseTotal / 10.0 / seconds,
+                GcPauseMonitor.percentile(sorted, 50), GcPauseMonitor.percentile(sorted, 90),
+                GcPauseMonitor.percentile(sorted, 99), sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+        System.out.printf("cycle %d allocation latency: %s%n", cycle - 1,
+                allocationLatency.intervalSnapshot().format(TimeUnit.MICROSECONDS));
+        cycleStart = System.nanoTime();
+        cycleEvent = new ChurnCycleEvent();
+        cycleEvent.begin();
+    }
+
+    private final class Churner implements Runnable {
+        private final byte[][] data;
+        private final SplittableRandom random;
+        private final int start;
+        private final long bytesPerSecond;
+        private final LatencyRecorder.Writer latency = allocationLatency.writer();
+        private int nextPos = 0;
+
+        private Churner(int index) {
+            // ring size stays a power of two so the index can be masked
+            int slots = Math.max(profile.liveSetSlots() / profile.threads(), 1);
+            int capacity = Integer.highestOneBit(slots);
+            this.data = new byte[capacity < slots ? capacity << 1 : capacity][];
+            this.random = new SplittableRandom(profile.seed() + index);
+            this.start = (int) ((long) profile.sizes().length * index / profile.threads());
+            this.bytesPerSecond = profile.allocationRateBytes() / profile.threads();
+        }
+
+        @Override
+        public void run() {
+            int[] sizes = profile.sizes();
+            double retention = profile.retention();
+            try {
+                for (int c = 0; c < profile.cycles(); c++) {
+                    AllocationPhaseEvent phase = new AllocationPhaseEvent();
+                    phase.begin();
+                    long begin = System.nanoTime();
+                    long allocated = 0;
+                    long retained = 0;
+                    long humongous = 0;
+                    long paced = 0;
+                    for (int i = 0; i < sizes.length; i++) {
+                        int size = sizes[(start + i) % sizes.length];
+                        // stalls show up here: TLAB refills, humongous region searches, waiting on a collection
+                        long allocationStart = System.nanoTime();
+                        byte[] bytes = new byte[size];
+                        latency.recordSince(allocationStart);
+                        if (retention >= 1.0 || random.nextDouble() < retention) {
+                            data[nextPos++ & (data.length - 1)] = bytes;
+                            retained++;
+                        }
+                        allocated += size;
+                        if (size >= humongousThreshold) {
+                            humongousAllocations.increment();
+                            humongous++;
+                        }
+                        if (bytesPerSecond > 0) {
+                            paced += pace(begin, allocated);
+                        }
+                    }
+                    allocatedBytes.add(allocated);
+                    phase.cycle = c;
+                    phase.allocations = sizes.length;
+                    phase.allocated = allocated;
+                    phase.retained = retained;
+                    phase.humongousAllocations = humongous;
+                    phase.paced = paced;
+                    phase.commit();
+                    cycleEnd.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (BrokenBarrierException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        // parks whenever this thread gets more than a millisecond ahead of its share of the target rate, returns
+        // the nanos it spent parked
+        private long pace(long begin, long allocated) {
+            long due = begin + (long) (allocated * 1e9 / bytesPerSecond);
+            long now = System.nanoTime();
+            long ahead = due - now;
+            if (ahead > 1_000_000) {
+                LockSupport.parkNanos(ahead);
+                return System.nanoTime() - now;
             }
-            System.out.println("Next cycle");
+            return 0;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,252 @@
+package gc;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToIntFunction;
+
+/**
+ * LRU cache bounded by total weight whose values can also be held through {@link SoftReference}s or
+ * {@link WeakReference}s, so the GC may drop them first. A daemon thread blocks on the {@link ReferenceQueue} and
+ * removes the entries of cleared values, lookups only ever see a cleared value as a miss. {@link Strength#STRONG}
+ * makes it a plain LRU to compare against.
+ */
+public class ReferenceCache<K, V> implements AutoCloseable {
+
+    public enum Strength {
+        STRONG, SOFT, WEAK
+    }
+
+    private final Strength strength;
+    private final long maxWeight;
+    private final ToIntFunction<? super V> weigher;
+    private final LinkedHashMap<K, Value<K, V>> map = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReferenceQueue<V> queue = new ReferenceQueue<>();
+    private final Thread drainer;
+    private long weight;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder collected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    public ReferenceCache(Strength strength, long maxWeight, ToIntFunction<? super V> weigher) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("Invalid max weight " + maxWeight);
+        }
+        this.strength = strength;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.drainer = new Thread(this::drain, "reference-cache-drainer");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    public V get(K key) {
+        Value<K, V> value;
+        synchronized (map) {
+            value = map.get(key);
+        }
+        V result = value == null ? null : value.get();
+        if (result == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return result;
+    }
+
+    public void put(K key, V value) {
+        int entryWeight = weigher.applyAsInt(value);
+        Value<K, V> entry = switch (strength) {
+            case STRONG -> new StrongValue<>(key, value, entryWeight);
+            case SOFT -> new SoftValue<>(key, value, entryWeight, queue);
+            case WEAK -> new WeakValue<>(key, value, entryWeight, queue);
+        };
+        synchronized (map) {
+            Value<K, V> old = map.put(key, entry);
+            weight += entryWeight;
+            if (old != null) {
+                weight -= old.weight();
+                // a cleared reference is never enqueued, so the drainer won't count it as collected
+                old.clear();
+            }
+            Iterator<Value<K, V>> eldest = map.values().iterator();
+            while (weight > maxWeight && eldest.hasNext()) {
+                Value<K, V> victim = eldest.next();
+                if (victim == entry) {
+                    break;
+                }
+                eldest.remove();
+                weight -= victim.weight();
+                victim.clear();
+                evicted.increment();
+            }
+        }
+    }
+
+    public void invalidate(K key) {
+        synchronized (map) {
+            Value<K, V> old = map.remove(key);
+            if (old != null) {
+                weight -= old.weight();
+                old.clear();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void drain() {
+        try {
+            while (true) {
+                Value<K, V> cleared = (Value<K, V>) queue.remove();
+                synchronized (map) {
+                    if (map.remove(cleared.key(), cleared)) {
+                        weight -= cleared.weight();
+                        collected.increment();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed
+        }
+    }
+
+    public int size() {
+        synchronized (map) {
+            return map.size();
+        }
+    }
+
+    public long weight() {
+        synchronized (map) {
+            return weight;
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public double hitRate() {
+        long hits = hits();
+        long total = hits + misses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    /**
+     * @return entries removed because the GC cleared their value
+     */
+    public long collected() {
+        return collected.sum();
+    }
+
+    /**
+     * @return entries removed to stay under the max weight
+     */
+    public long evicted() {
+        return evicted.sum();
+    }
+
+    @Override
+    public void close() {
+        drainer.interrupt();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %.1f%% hit (%d/%d), %d collected, %d evicted, %d entries weighing %d",
+                strength, hitRate() * 100, hits(), hits() + misses(), collected(), evicted(), size(), weight());
+    }
+
+    private interface Value<K, V> {
+        V get();
+
+        void clear();
+
+        K key();
+
+        int weight();
+    }
+
+    private static final class StrongValue<K, V> implements Value<K, V> {
+        private final K key;
+        private final int weight;
+        private V value;
+
+        private StrongValue(K key, V value, int weight) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+        }
+
+        @Override
+        public V get() {
+            return value;
+        }
+
+        @Override
+        public void clear() {
+            value = null;
+        }
+
+        @Override
+        public K key() {
+            return key;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+    }
+
+    private static final class SoftValue<K, V> extends SoftReference<V> implements Value<K, V> {
+        private final K key;
+        private final int weight;
+
+        private SoftValue(K key, V value, int weight, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+            this.weight = weight;
+        }
+
+        @Override
+        public K key() {
+            return key;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+    }
+
+    private static final class WeakValue<K, V> extends WeakReference<V> implements Value<K, V> {
+        private final K key;
+        private final int weight;
+
+        private WeakValue(K key, V value, int weight, ReferenceQueue<? super V> queue) {
+            super(value, queue);
+            this.key = key;
+            this.weight = weight;
+        }
+
+        @Override
+        public K key() {
+            return key;
+        }
+
+        @Override
+        public int weight() {
+            return weight;
+        }
+    }
+}
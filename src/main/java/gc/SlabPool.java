@@ -0,0 +1,225 @@
+package gc;
+
+import java.lang.ref.Cleaner;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool of direct buffers in power-of-two size classes, so big short-lived buffers stop being humongous heap
+ * allocations. Classes below {@link #SLAB_SIZE} are carved out of shared 1mb slabs; bigger ones are allocated one
+ * by one and kept on return while the pool holds less than {@code maxPooledBytes}. Requests above the largest
+ * class bypass the pool.
+ * <p>
+ * Every {@link Lease} must be released. A lease whose buffer becomes unreachable without that is caught by a
+ * {@link Cleaner} and counted as {@link #leaked()}, but its memory is never handed out again: a slice taken from
+ * the buffer can outlive it, and recycling under a live slice would be a use-after-free. A leaked slab piece stays
+ * out of circulation for as long as the pool holds its slab. Buffers aren't zeroed.
+ */
+public class SlabPool {
+
+    public static final int SLAB_SIZE = 1 << 20;
+    private static final int MIN_CLASS_SHIFT = 6;
+
+    private static final Cleaner cleaner = Cleaner.create();
+
+    private final ConcurrentLinkedQueue<ByteBuffer>[] free;
+    private final int maxClassSize;
+    private final long maxPooledBytes;
+    private final AtomicLong pooledBytes = new AtomicLong();
+    private final AtomicLong outstandingBytes = new AtomicLong();
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder leaked = new LongAdder();
+
+    /**
+     * @param maxClassSize   largest pooled request, rounded up to a power of two
+     * @param maxPooledBytes how much idle memory the classes above {@link #SLAB_SIZE} may keep
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public SlabPool(int maxClassSize, long maxPooledBytes) {
+        if (maxClassSize < 1 || maxClassSize > 1 << 30 || maxPooledBytes < 0) {
+            throw new IllegalArgumentException("Invalid pool size " + maxClassSize + "/" + maxPooledBytes);
+        }
+        int classes = classOf(maxClassSize) + 1;
+        this.free = new ConcurrentLinkedQueue[classes];
+        for (int i = 0; i < classes; i++) {
+            free[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.maxClassSize = classSize(classes - 1);
+        this.maxPooledBytes = maxPooledBytes;
+    }
+
+    private static int classOf(int size) {
+        return Math.max(0, 32 - Integer.numberOfLeadingZeros(size - 1) - MIN_CLASS_SHIFT);
+    }
+
+    private static int classSize(int sizeClass) {
+        return 1 << (sizeClass + MIN_CLASS_SHIFT);
+    }
+
+    /**
+     * @return a lease on a buffer with position 0 and capacity and limit {@code size}
+     */
+    public Lease acquire(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Negative size " + size);
+        }
+        if (size > maxClassSize) {
+            misses.increment();
+            outstandingBytes.addAndGet(size);
+            return new Lease(new Reclaim(this, -1, ByteBuffer.allocateDirect(size)), size);
+        }
+        int sizeClass = classOf(Math.max(size, 1));
+        ByteBuffer backing = free[sizeClass].poll();
+        if (backing != null) {
+            hits.increment();
+            if (classSize(sizeClass) >= SLAB_SIZE) {
+                pooledBytes.addAndGet(-backing.capacity());
+            }
+        } else {
+            misses.increment();
+            backing = allocate(sizeClass);
+        }
+        outstandingBytes.addAndGet(backing.capacity());
+        return new Lease(new Reclaim(this, sizeClass, backing), size);
+    }
+
+    private ByteBuffer allocate(int sizeClass) {
+        int classSize = classSize(sizeClass);
+        if (classSize >= SLAB_SIZE) {
+            reservedBytes.addAndGet(classSize);
+            return ByteBuffer.allocateDirect(classSize);
+        }
+        ByteBuffer slab = ByteBuffer.allocateDirect(SLAB_SIZE);
+        reservedBytes.addAndGet(SLAB_SIZE);
+        for (int offset = classSize; offset < SLAB_SIZE; offset += classSize) {
+            free[sizeClass].offer(slab.slice(offset, classSize));
+        }
+        return slab.slice(0, classSize);
+    }
+
+    // slab pieces always go back, whole buffers only while under the cap, the rest is left to the GC
+    private void giveBack(int sizeClass, ByteBuffer backing) {
+        outstandingBytes.addAndGet(-backing.capacity());
+        if (sizeClass < 0) {
+            return;
+        }
+        int classSize = backing.capacity();
+        if (classSize >= SLAB_SIZE) {
+            if (pooledBytes.addAndGet(classSize) > maxPooledBytes) {
+                pooledBytes.addAndGet(-classSize);
+                reservedBytes.addAndGet(-classSize);
+                return;
+            }
+        }
+        backing.clear();
+        free[sizeClass].offer(backing);
+    }
+
+    // whole buffers are freed once the GC gets to them, a slab piece is lost while the rest of its slab is in use
+    private void drop(int sizeClass, ByteBuffer backing) {
+        leaked.increment();
+        outstandingBytes.addAndGet(-backing.capacity());
+        if (sizeClass >= 0 && backing.capacity() >= SLAB_SIZE) {
+            reservedBytes.addAndGet(-backing.capacity());
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return leases that were never released, their memory was dropped rather than pooled again
+     */
+    public long leaked() {
+        return leaked.sum();
+    }
+
+    /**
+     * @return bytes handed out and not released yet, rounded up to their size class
+     */
+    public long outstandingBytes() {
+        return outstandingBytes.get();
+    }
+
+    /**
+     * @return direct memory the pool allocated and still holds, leased or idle
+     */
+    public long reservedBytes() {
+        return reservedBytes.get();
+    }
+
+    @Override
+    public String toString() {
+        long hits = hits();
+        long total = hits + misses();
+        return String.format("hits %d, misses %d (%.1f%% hit), leaked %d, outstanding %d bytes, reserved %d bytes",
+                hits, total - hits, total == 0 ? 0.0 : hits * 100.0 / total, leaked(), outstandingBytes(),
+                reservedBytes());
+    }
+
+    // must not reference the lease or its buffer, or they would never become phantom reachable
+    private static final class Reclaim implements Runnable {
+        private final SlabPool pool;
+        private final int sizeClass;
+        private final ByteBuffer backing;
+        // set by the releasing thread, read by the cleaner thread
+        private volatile boolean released;
+
+        private Reclaim(SlabPool pool, int sizeClass, ByteBuffer backing) {
+            this.pool = pool;
+            this.sizeClass = sizeClass;
+            this.backing = backing;
+        }
+
+        @Override
+        public void run() {
+            if (released) {
+                pool.giveBack(sizeClass, backing);
+            } else {
+                pool.drop(sizeClass, backing);
+            }
+        }
+    }
+
+    public static final class Lease implements AutoCloseable {
+        private final Reclaim reclaim;
+        private final Cleaner.Cleanable cleanable;
+        private final ByteBuffer buffer;
+
+        private Lease(Reclaim reclaim, int size) {
+            this.reclaim = reclaim;
+            this.buffer = reclaim.backing.slice(0, size);
+            // the buffer rather than the lease, so acquire(n).buffer() is not reported as a leak while in use
+            this.cleanable = cleaner.register(buffer, reclaim);
+        }
+
+        public ByteBuffer buffer() {
+            if (reclaim.released) {
+                throw new IllegalStateException("Lease already released");
+            }
+            return buffer;
+        }
+
+        public void release() {
+            if (reclaim.released) {
+                throw new IllegalStateException("Lease already released");
+            }
+            reclaim.released = true;
+            cleanable.clean();
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package gc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Allocation profile for {@link ObjectChurner}, see {@code gc/default-workload.properties} for the format.
+ */
+public class WorkloadProfile {
+
+    private static final String DEFAULT_PROFILE = "default-workload.properties";
+
+    private final int[] sizes;
+    private final int threads;
+    private final int cycles;
+    private final long allocationRateBytes;
+    private final double retention;
+    private final int liveSetSlots;
+    private final long seed;
+
+    private WorkloadProfile(Properties properties) {
+        this.threads = Integer.parseInt(properties.getProperty("threads", "1").trim());
+        this.cycles = Integer.parseInt(properties.getProperty("cycles", "10").trim());
+        this.allocationRateBytes = Long.parseLong(properties.getProperty("allocation.rate.mb", "0").trim()) * 1024 * 1024;
+        this.retention = Double.parseDouble(properties.getProperty("retention", "1.0").trim());
+        this.liveSetSlots = Integer.parseInt(properties.getProperty("liveset.slots", "1048576").trim());
+        this.seed = Long.parseLong(properties.getProperty("seed", "0").trim());
+        String sizes = properties.getProperty("sizes");
+        if (sizes == null || sizes.isBlank()) {
+            throw new IllegalArgumentException("Profile has no sizes");
+        }
+        if (threads < 1 || cycles < 1 || liveSetSlots < 1 || allocationRateBytes < 0 || retention < 0 || retention > 1) {
+            throw new IllegalArgumentException("Invalid profile " + properties);
+        }
+        this.sizes = parseSizes(sizes, seed);
+    }
+
+    public static WorkloadProfile defaults() {
+        try (InputStream in = WorkloadProfile.class.getResourceAsStream(DEFAULT_PROFILE)) {
+            Properties properties = new Properties();
+            properties.load(in);
+            return new WorkloadProfile(properties);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static WorkloadProfile load(Path path) {
+        try (Reader reader = Files.newBufferedReader(path)) {
+            Properties properties = new Properties();
+            properties.load(reader);
+            return new WorkloadProfile(properties);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int[] parseSizes(String spec, long seed) {
+        String[] entries = spec.split(",");
+        int[] counts = new int[entries.length];
+        int[] sizes = new int[entries.length];
+        int total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            String[] parts = entries[i].trim().split("\\*");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected count*size but got " + entries[i]);
+            }
+            counts[i] = Integer.parseInt(parts[0].trim());
+            sizes[i] = parseSize(parts[1].trim());
+            total = Math.addExact(total, counts[i]);
+        }
+        int[] result = new int[total];
+        for (int i = 0, pos = 0; i < entries.length; i++) {
+            for (int n = 0; n < counts[i]; n++) {
+                result[pos++] = sizes[i];
+            }
+        }
+        // same effect as the Collections.shuffle(sizes, new Random(0)) the churner used to do
+        Random random = new Random(seed);
+        for (int i = result.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = result[i];
+            result[i] = result[j];
+            result[j] = tmp;
+        }
+        return result;
+    }
+
+    static int parseSize(String size) {
+        char unit = Character.toLowerCase(size.charAt(size.length() - 1));
+        return switch (unit) {
+            case 'k' -> Math.multiplyExact(Integer.parseInt(size.substring(0, size.length() - 1)), 1024);
+            case 'm' -> Math.multiplyExact(Integer.parseInt(size.substring(0, size.length() - 1)), 1024 * 1024);
+            default -> Integer.parseInt(size);
+        };
+    }
+
+    public int[] sizes() {
+        return sizes;
+    }
+
+    public int threads() {
+        return threads;
+    }
+
+    public int cycles() {
+        return cycles;
+    }
+
+    public long allocationRateBytes() {
+        return allocationRateBytes;
+    }
+
+    public double retention() {
+        return retention;
+    }
+
+    public int liveSetSlots() {
+        return liveSetSlots;
+    }
+
+    public long seed() {
+        return seed;
+    }
+}
@@ -0,0 +1,140 @@
+package jmh;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses unsigned ASCII decimals (epoch-millis timestamps and the like) eight digits at a time,
+ * loading each group of eight bytes as one long (SWAR) instead of going through a String.
+ */
+public final class AsciiDecimal {
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final long ZEROS = 0x3030303030303030L;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L
+    };
+    // 18 digits always fit in a long, the 19th needs overflow checks
+    private static final int SAFE_DIGITS = 18;
+
+    private AsciiDecimal() {
+    }
+
+    public static long parseLong(byte[] bytes) {
+        return parseLong(bytes, 0, bytes.length);
+    }
+
+    public static long parseLong(byte[] bytes, int offset, int length) {
+        if (length <= 0 || length > SAFE_DIGITS) {
+            return parseLongChecked(bytes, offset, length);
+        }
+        if (length < Long.BYTES) {
+            return parseShort(bytes, offset, length);
+        }
+        int end = offset + length;
+        long result = 0;
+        int i = offset;
+        for (; i + Long.BYTES <= end; i += Long.BYTES) {
+            result = result * 100_000_000L + parseEight((long) LONG_LE.get(bytes, i), bytes, offset, length);
+        }
+        int tail = end - i;
+        if (tail > 0) {
+            // re-read the last eight bytes and blank out the ones already consumed with '0'
+            long mask = (1L << ((Long.BYTES - tail) * 8)) - 1;
+            long chunk = ((long) LONG_LE.get(bytes, end - Long.BYTES) & ~mask) | (ZEROS & mask);
+            result = result * POWERS_OF_TEN[tail] + parseEight(chunk, bytes, offset, length);
+        }
+        return result;
+    }
+
+    /**
+     * Parses {@code count} fixed-width records laid back to back from {@code offset} into {@code into}.
+     */
+    public static long[] parseFixedWidth(byte[] bytes, int offset, int width, int count, long[] into) {
+        if (into.length < count) {
+            throw new IllegalArgumentException("Target array too small for " + count + " values");
+        }
+        for (int n = 0, pos = offset; n < count; n++, pos += width) {
+            into[n] = parseLong(bytes, pos, width);
+        }
+        return into;
+    }
+
+    public static long[] parseFixedWidth(byte[] bytes, int width) {
+        int count = bytes.length / width;
+        return parseFixedWidth(bytes, 0, width, count, new long[count]);
+    }
+
+    /**
+     * Parses values separated by a single {@code delimiter} byte, a trailing delimiter is allowed.
+     *
+     * @return the number of values written into {@code into}
+     */
+    public static int parseDelimited(byte[] bytes, int offset, int length, byte delimiter, long[] into) {
+        int end = offset + length;
+        int count = 0;
+        int start = offset;
+        for (int i = offset; i < end; i++) {
+            if (bytes[i] == delimiter) {
+                into[count++] = parseLong(bytes, start, i - start);
+                start = i + 1;
+            }
+        }
+        if (start < end) {
+            into[count++] = parseLong(bytes, start, end - start);
+        }
+        return count;
+    }
+
+    private static long parseEight(long chunk, byte[] bytes, int offset, int length) {
+        long digits = chunk - ZEROS;
+        // every byte must be within '0'..'9': no borrow below '0' and no carry past '9' when adding 6
+        if ((chunk & 0xF0F0F0F0F0F0F0F0L) != ZEROS
+                || ((chunk + 0x0606060606060606L) & 0xF0F0F0F0F0F0F0F0L) != ZEROS) {
+            throw invalid(bytes, offset, length);
+        }
+        digits = (digits * 10) + (digits >>> 8);
+        digits = (((digits & 0x000000FF000000FFL) * (100 + (1_000_000L << 32)))
+                + (((digits >>> 16) & 0x000000FF000000FFL) * (1 + (10_000L << 32)))) >>> 32;
+        return digits;
+    }
+
+    private static long parseShort(byte[] bytes, int offset, int length) {
+        long result = 0;
+        for (int i = offset, end = offset + length; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw invalid(bytes, offset, length);
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static long parseLongChecked(byte[] bytes, int offset, int length) {
+        if (length <= 0) {
+            throw invalid(bytes, offset, length);
+        }
+        long result = 0;
+        try {
+            for (int i = offset, end = offset + length; i < end; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    throw invalid(bytes, offset, length);
+                }
+                result = Math.addExact(Math.multiplyExact(result, 10L), digit);
+            }
+        } catch (ArithmeticException e) {
+            throw invalid(bytes, offset, length);
+        }
+        return result;
+    }
+
+    private static NumberFormatException invalid(byte[] bytes, int offset, int length) {
+        return new NumberFormatException("For input string: \""
+                + new String(bytes, offset, Math.max(length, 0), StandardCharsets.ISO_8859_1) + "\"");
+    }
+}
@@ -0,0 +1,148 @@
+package jmh;
+
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Copies between heap arrays, heap or direct {@link ByteBuffer}s and {@link MemorySegment}s, splitting anything
+ * of at least {@code thresholdBytes} across a fork-join pool. A single core rarely saturates memory bandwidth on a
+ * multi-socket or many-channel box, which is where the split pays off; below a few megabytes it only adds overhead.
+ * The default threshold is {@value #DEFAULT_THRESHOLD} bytes, {@code -Dbulk.copy.threshold} overrides it.
+ * <p>
+ * Overlapping copies within the same array, buffer or segment are done sequentially and behave like
+ * {@code System.arraycopy}. Distinct buffers that share memory must not overlap.
+ */
+public final class BulkCopy {
+
+    public static final long DEFAULT_THRESHOLD = 4L << 20;
+    // memory bound, so a couple of chunks per worker is enough to even out stragglers
+    private static final int CHUNKS_PER_WORKER = 2;
+    private static final long MIN_CHUNK_BYTES = 256 * 1024;
+    private static final long ALIGNMENT = 4096;
+
+    private static final BulkCopy DEFAULTS = new BulkCopy(ForkJoinPool.commonPool(),
+            Long.getLong("bulk.copy.threshold", DEFAULT_THRESHOLD));
+
+    // never started, a segment it can access isn't confined to some thread
+    private static final Thread ANY_THREAD = new Thread(() -> {
+    });
+
+    private final ForkJoinPool pool;
+    private final long thresholdBytes;
+
+    private BulkCopy(ForkJoinPool pool, long thresholdBytes) {
+        if (thresholdBytes < 0) {
+            throw new IllegalArgumentException("Negative threshold " + thresholdBytes);
+        }
+        this.pool = pool;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    public static BulkCopy defaults() {
+        return DEFAULTS;
+    }
+
+    /**
+     * @param thresholdBytes copies at least this big go parallel, 0 for anything above one 256kb chunk
+     */
+    public static BulkCopy using(ForkJoinPool pool, long thresholdBytes) {
+        return new BulkCopy(pool, thresholdBytes);
+    }
+
+    public void copy(byte[] src, int srcPos, byte[] dst, int dstPos, int length) {
+        if (src == dst || !parallel(length)) {
+            System.arraycopy(src, srcPos, dst, dstPos, length);
+            return;
+        }
+        Objects.checkFromIndexSize(srcPos, length, src.length);
+        Objects.checkFromIndexSize(dstPos, length, dst.length);
+        split(length, 1, (from, to) -> System.arraycopy(src, srcPos + (int) from, dst, dstPos + (int) from,
+                (int) (to - from)));
+    }
+
+    public void copy(long[] src, int srcPos, long[] dst, int dstPos, int length) {
+        if (src == dst || !parallel((long) length * Long.BYTES)) {
+            System.arraycopy(src, srcPos, dst, dstPos, length);
+            return;
+        }
+        Objects.checkFromIndexSize(srcPos, length, src.length);
+        Objects.checkFromIndexSize(dstPos, length, dst.length);
+        split(length, Long.BYTES, (from, to) -> System.arraycopy(src, srcPos + (int) from, dst, dstPos + (int) from,
+                (int) (to - from)));
+    }
+
+    /**
+     * Absolute copy, neither buffer's position or limit is used or changed. Either side may be heap or direct.
+     */
+    public void copy(ByteBuffer src, int srcIndex, ByteBuffer dst, int dstIndex, int length) {
+        if (src == dst || !parallel(length)) {
+            dst.put(dstIndex, src, srcIndex, length);
+            return;
+        }
+        Objects.checkFromIndexSize(srcIndex, length, src.limit());
+        Objects.checkFromIndexSize(dstIndex, length, dst.limit());
+        split(length, 1, (from, to) -> dst.put(dstIndex + (int) from, src, srcIndex + (int) from, (int) (to - from)));
+    }
+
+    /**
+     * Segments from a confined arena always take the sequential path, the pool threads can't access them.
+     */
+    public void copy(MemorySegment src, long srcOffset, MemorySegment dst, long dstOffset, long bytes) {
+        if (!parallel(bytes) || src.asOverlappingSlice(dst).isPresent()
+                || !src.isAccessibleBy(ANY_THREAD) || !dst.isAccessibleBy(ANY_THREAD)) {
+            MemorySegment.copy(src, srcOffset, dst, dstOffset, bytes);
+            return;
+        }
+        Objects.checkFromIndexSize(srcOffset, bytes, src.byteSize());
+        Objects.checkFromIndexSize(dstOffset, bytes, dst.byteSize());
+        split(bytes, 1, (from, to) -> MemorySegment.copy(src, srcOffset + from, dst, dstOffset + from, to - from));
+    }
+
+    private boolean parallel(long bytes) {
+        return bytes >= thresholdBytes && bytes > MIN_CHUNK_BYTES && pool.getParallelism() > 1;
+    }
+
+    private void split(long length, int elementBytes, Range range) {
+        long chunkBytes = Math.max(length * elementBytes / ((long) pool.getParallelism() * CHUNKS_PER_WORKER),
+                MIN_CHUNK_BYTES);
+        // chunks are a whole number of pages long, counted from the start of the copy rather than from any address,
+        // so a boundary can still fall mid-line; one shared line per 256kb or more is noise
+        long chunk = Math.max((chunkBytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT / elementBytes, 1);
+        pool.invoke(new Split(range, 0, length, chunk));
+    }
+
+    @FunctionalInterface
+    private interface Range {
+        void copy(long from, long to);
+    }
+
+    // lives for one copy and is never serialized, a lambda field can't be anyway
+    @SuppressWarnings("serial")
+    private static final class Split extends RecursiveAction {
+        private final Range range;
+        private final long from;
+        private final long to;
+        private final long chunk;
+
+        private Split(Range range, long from, long to, long chunk) {
+            this.range = range;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                range.copy(from, to);
+                return;
+            }
+            // split on a chunk boundary so only the very last chunk is short
+            long middle = from + (to - from + chunk) / (2 * chunk) * chunk;
+            invokeAll(new Split(range, from, middle, chunk), new Split(range, middle, to, chunk));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link ArrayCopy} for the sizes we actually copy, 4kb to 256mb of {@code byte} or {@code long}, plus heap/direct
+ * buffers and memory segments, each single threaded and through {@link BulkCopy} splitting across every core.
+ * Copies go into preallocated destinations, so unlike {@link ArrayCopy} this is the copy alone. Run {@code main} to
+ * also get the size from which each parallel copy beats its single threaded counterpart.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"--enable-preview", "-Xms2g", "-Xmx2g", "-XX:MaxDirectMemorySize=1g"})
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class BulkCopyBenchmark {
+
+    private static final Map<String, String> SEQUENTIAL_OF = Map.of(
+            "parallelArraycopy", "arraycopy",
+            "parallelHeapToDirect", "heapToDirect",
+            "parallelDirectToHeap", "directToHeap",
+            "parallelSegmentCopy", "segmentCopy");
+
+    @State(Scope.Thread)
+    public static class ArrayPair {
+
+        @Param({"4096", "65536", "1048576", "16777216", "268435456"})
+        int bytes;
+
+        @Param({"byte", "long"})
+        String type;
+
+        byte[] byteSrc;
+        byte[] byteDst;
+        long[] longSrc;
+        long[] longDst;
+        BulkCopy parallel;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            Random random = new Random(0);
+            if (type.equals("byte")) {
+                byteSrc = new byte[bytes];
+                byteDst = new byte[bytes];
+                random.nextBytes(byteSrc);
+            } else {
+                longSrc = random.longs(bytes / Long.BYTES).toArray();
+                longDst = new long[longSrc.length];
+            }
+            parallel = BulkCopy.using(ForkJoinPool.commonPool(), 0);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BufferPair {
+
+        @Param({"4096", "65536", "1048576", "16777216", "268435456"})
+        int bytes;
+
+        ByteBuffer heap;
+        ByteBuffer direct;
+        MemorySegment heapSegment;
+        MemorySegment nativeSegment;
+        Arena arena;
+        BulkCopy parallel;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            byte[] data = new byte[bytes];
+            new Random(0).nextBytes(data);
+            heap = ByteBuffer.wrap(data);
+            direct = ByteBuffer.allocateDirect(bytes);
+            arena = Arena.ofShared();
+            heapSegment = MemorySegment.ofArray(data);
+            nativeSegment = arena.allocate(bytes, 4096);
+            parallel = BulkCopy.using(ForkJoinPool.commonPool(), 0);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            arena.close();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(BulkCopyBenchmark.class.getSimpleName())
+                .build()).run();
+        printCrossover(results);
+    }
+
+    // smallest size from which the parallel copy is faster than the same copy on one thread
+    static void printCrossover(Collection<RunResult> results) {
+        Map<String, Double> scores = new HashMap<>();
+        SortedSet<Integer> sizes = new TreeSet<>();
+        for (RunResult result : results) {
+            String method = result.getParams().getBenchmark();
+            method = method.substring(method.lastIndexOf('.') + 1);
+            String type = result.getParams().getParam("type");
+            int bytes = Integer.parseInt(result.getParams().getParam("bytes"));
+            sizes.add(bytes);
+            scores.put(method + (type == null ? "" : " " + type) + "/" + bytes, result.getPrimaryResult().getScore());
+        }
+        System.out.printf("%n%d cores%n", Runtime.getRuntime().availableProcessors());
+        for (String parallel : new TreeSet<>(SEQUENTIAL_OF.keySet())) {
+            for (String type : parallel.equals("parallelArraycopy") ? List.of(" byte", " long") : List.of("")) {
+                Integer crossover = null;
+                for (int bytes : sizes) {
+                    Double sequential = scores.get(SEQUENTIAL_OF.get(parallel) + type + "/" + bytes);
+                    Double split = scores.get(parallel + type + "/" + bytes);
+                    if (sequential != null && split != null && split < sequential) {
+                        crossover = bytes;
+                        break;
+                    }
+                }
+                System.out.printf("%-26s %s%n", parallel + type,
+                        crossover == null ? "never wins" : "wins from " + crossover + " bytes");
+            }
+        }
+    }
+
+    @Benchmark
+    public Object arraycopy(ArrayPair state) {
+        if (state.byteSrc != null) {
+            System.arraycopy(state.byteSrc, 0, state.byteDst, 0, state.byteSrc.length);
+            return state.byteDst;
+        }
+        System.arraycopy(state.longSrc, 0, state.longDst, 0, state.longSrc.length);
+        return state.longDst;
+    }
+
+    @Benchmark
+    public Object parallelArraycopy(ArrayPair state) {
+        if (state.byteSrc != null) {
+            state.parallel.copy(state.byteSrc, 0, state.byteDst, 0, state.byteSrc.length);
+            return state.byteDst;
+        }
+        state.parallel.copy(state.longSrc, 0, state.longDst, 0, state.longSrc.length);
+        return state.longDst;
+    }
+
+    @Benchmark
+    public ByteBuffer heapToDirect(BufferPair state) {
+        return state.direct.put(0, state.heap, 0, state.bytes);
+    }
+
+    @Benchmark
+    public ByteBuffer parallelHeapToDirect(BufferPair state) {
+        state.parallel.copy(state.heap, 0, state.direct, 0, state.bytes);
+        return state.direct;
+    }
+
+    @Benchmark
+    public ByteBuffer directToHeap(BufferPair state) {
+        return state.heap.put(0, state.direct, 0, state.bytes);
+    }
+
+    @Benchmark
+    public ByteBuffer parallelDirectToHeap(BufferPair state) {
+        state.parallel.copy(state.direct, 0, state.heap, 0, state.bytes);
+        return state.heap;
+    }
+
+    @Benchmark
+    public MemorySegment segmentCopy(BufferPair state) {
+        MemorySegment.copy(state.heapSegment, 0, state.nativeSegment, 0, state.bytes);
+        return state.nativeSegment;
+    }
+
+    @Benchmark
+    public MemorySegment parallelSegmentCopy(BufferPair state) {
+        state.parallel.copy(state.heapSegment, 0, state.nativeSegment, 0, state.bytes);
+        return state.nativeSegment;
+    }
+}
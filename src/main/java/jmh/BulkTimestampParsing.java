@@ -0,0 +1,71 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Measurement(iterations = 10, time = 1)
+public class BulkTimestampParsing {
+
+    private static final int WIDTH = 13;
+
+    @Param({"100", "10000", "1000000"})
+    private int count;
+
+    private byte[] packed;
+    private byte[] delimited;
+    private long[] into;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        StringBuilder fixed = new StringBuilder(count * WIDTH);
+        StringBuilder lines = new StringBuilder(count * (WIDTH + 1));
+        long timestamp = 1597064529541L;
+        for (int i = 0; i < count; i++) {
+            timestamp += random.nextInt(1000);
+            fixed.append(timestamp);
+            lines.append(timestamp).append('\n');
+        }
+        packed = fixed.toString().getBytes(StandardCharsets.US_ASCII);
+        delimited = lines.toString().getBytes(StandardCharsets.US_ASCII);
+        into = new long[count];
+    }
+
+    @Benchmark
+    public long[] parseLongPerValue() {
+        for (int i = 0; i < count; i++) {
+            into[i] = Long.parseLong(new String(packed, i * WIDTH, WIDTH, StandardCharsets.US_ASCII));
+        }
+        return into;
+    }
+
+    @Benchmark
+    public long[] scalarPerValue() {
+        for (int i = 0; i < count; i++) {
+            long result = 0;
+            for (int j = i * WIDTH, end = j + WIDTH; j < end; j++) {
+                result = result * 10 + (packed[j] - '0');
+            }
+            into[i] = result;
+        }
+        return into;
+    }
+
+    @Benchmark
+    public long[] swarFixedWidth() {
+        return AsciiDecimal.parseFixedWidth(packed, 0, WIDTH, count, into);
+    }
+
+    @Benchmark
+    public int swarDelimited() {
+        return AsciiDecimal.parseDelimited(delimited, 0, delimited.length, (byte) '\n', into);
+    }
+}
@@ -0,0 +1,229 @@
+package jmh;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The part of HBase's {@code org.apache.hadoop.hbase.util.Bytes} we use, on top of byte array view
+ * {@link VarHandle}s instead of {@code Unsafe}: big-endian primitives, unsigned lexicographic comparison of row keys
+ * and UTF-8 strings, all with offset/length variants. Encodings are byte-for-byte the same as HBase's.
+ * Out-of-range offsets throw {@link IndexOutOfBoundsException}.
+ */
+public final class Bytes {
+
+    private static final VarHandle SHORT = MethodHandles.byteArrayViewVarHandle(short[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle INT = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private Bytes() {
+    }
+
+    public static byte[] toBytes(short value) {
+        byte[] bytes = new byte[Short.BYTES];
+        SHORT.set(bytes, 0, value);
+        return bytes;
+    }
+
+    public static byte[] toBytes(int value) {
+        byte[] bytes = new byte[Integer.BYTES];
+        INT.set(bytes, 0, value);
+        return bytes;
+    }
+
+    public static byte[] toBytes(long value) {
+        byte[] bytes = new byte[Long.BYTES];
+        LONG.set(bytes, 0, value);
+        return bytes;
+    }
+
+    /**
+     * The raw IEEE 754 bits, like HBase, so negative values don't sort below positive ones.
+     */
+    public static byte[] toBytes(double value) {
+        return toBytes(Double.doubleToRawLongBits(value));
+    }
+
+    public static byte[] toBytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return the offset just past the written value
+     */
+    public static int putShort(byte[] bytes, int offset, short value) {
+        SHORT.set(bytes, offset, value);
+        return offset + Short.BYTES;
+    }
+
+    public static int putInt(byte[] bytes, int offset, int value) {
+        INT.set(bytes, offset, value);
+        return offset + Integer.BYTES;
+    }
+
+    public static int putLong(byte[] bytes, int offset, long value) {
+        LONG.set(bytes, offset, value);
+        return offset + Long.BYTES;
+    }
+
+    public static int putDouble(byte[] bytes, int offset, double value) {
+        return putLong(bytes, offset, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Encodes straight into {@code bytes}, which must have room for {@link #utf8Length(CharSequence)} bytes.
+     * Unpaired surrogates become {@code '?'}, as with {@code String.getBytes}.
+     *
+     * @return the offset just past the written bytes
+     */
+    public static int putString(byte[] bytes, int offset, CharSequence value) {
+        int length = value.length();
+        int pos = offset;
+        int i = 0;
+        // ASCII until the first char that isn't
+        while (i < length) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                break;
+            }
+            bytes[pos++] = (byte) c;
+            i++;
+        }
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes[pos++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[pos++] = (byte) (0xC0 | (c >> 6));
+                bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                int cp = Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))
+                        ? Character.toCodePoint(c, value.charAt(++i)) : -1;
+                if (cp < 0) {
+                    bytes[pos++] = '?';
+                } else {
+                    bytes[pos++] = (byte) (0xF0 | (cp >> 18));
+                    bytes[pos++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                    bytes[pos++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                    bytes[pos++] = (byte) (0x80 | (cp & 0x3F));
+                }
+            } else {
+                bytes[pos++] = (byte) (0xE0 | (c >> 12));
+                bytes[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return pos;
+    }
+
+    public static int utf8Length(CharSequence value) {
+        int length = value.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x800) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    // four bytes for the two chars
+                    bytes += 2;
+                    i++;
+                } else if (!Character.isSurrogate(c)) {
+                    bytes += 2;
+                }
+            } else if (c >= 0x80) {
+                bytes++;
+            }
+        }
+        return bytes;
+    }
+
+    public static short toShort(byte[] bytes) {
+        return toShort(bytes, 0);
+    }
+
+    public static short toShort(byte[] bytes, int offset) {
+        return (short) SHORT.get(bytes, offset);
+    }
+
+    public static int toInt(byte[] bytes) {
+        return toInt(bytes, 0);
+    }
+
+    public static int toInt(byte[] bytes, int offset) {
+        return (int) INT.get(bytes, offset);
+    }
+
+    public static long toLong(byte[] bytes) {
+        return toLong(bytes, 0);
+    }
+
+    public static long toLong(byte[] bytes, int offset) {
+        return (long) LONG.get(bytes, offset);
+    }
+
+    public static double toDouble(byte[] bytes) {
+        return toDouble(bytes, 0);
+    }
+
+    public static double toDouble(byte[] bytes, int offset) {
+        return Double.longBitsToDouble(toLong(bytes, offset));
+    }
+
+    /**
+     * @return the UTF-8 decoded bytes, or {@code null} for a {@code null} array like HBase
+     */
+    public static String toString(byte[] bytes) {
+        return bytes == null ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static String toString(byte[] bytes, int offset, int length) {
+        if (bytes == null) {
+            return null;
+        }
+        return length == 0 ? "" : new String(bytes, offset, length, StandardCharsets.UTF_8);
+    }
+
+    public static int compareTo(byte[] left, byte[] right) {
+        return compareTo(left, 0, left.length, right, 0, right.length);
+    }
+
+    /**
+     * Unsigned lexicographic order, the order of HBase row keys. Compares eight bytes at a time as big-endian
+     * unsigned longs, so the first differing long decides; a prefix sorts before anything longer.
+     */
+    public static int compareTo(byte[] left, int leftOffset, int leftLength,
+                                byte[] right, int rightOffset, int rightLength) {
+        Objects.checkFromIndexSize(leftOffset, leftLength, left.length);
+        Objects.checkFromIndexSize(rightOffset, rightLength, right.length);
+        if (left == right && leftOffset == rightOffset && leftLength == rightLength) {
+            return 0;
+        }
+        int common = Math.min(leftLength, rightLength);
+        int words = common & ~(Long.BYTES - 1);
+        int i = 0;
+        for (; i < words; i += Long.BYTES) {
+            long a = (long) LONG.get(left, leftOffset + i);
+            long b = (long) LONG.get(right, rightOffset + i);
+            if (a != b) {
+                return Long.compareUnsigned(a, b);
+            }
+        }
+        for (; i < common; i++) {
+            int a = left[leftOffset + i] & 0xFF;
+            int b = right[rightOffset + i] & 0xFF;
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return leftLength - rightLength;
+    }
+
+    public static boolean equals(byte[] left, int leftOffset, int leftLength,
+                                 byte[] right, int rightOffset, int rightLength) {
+        return leftLength == rightLength
+                && Arrays.equals(left, leftOffset, leftOffset + leftLength,
+                right, rightOffset, rightOffset + rightLength);
+    }
+}
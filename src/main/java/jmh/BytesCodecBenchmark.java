@@ -0,0 +1,130 @@
+package jmh;
+
+import com.google.common.primitives.Longs;
+import com.google.common.primitives.UnsignedBytes;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link Bytes} against HBase's {@code Bytes}, which it replaces, and Guava's {@code Longs}/{@code UnsignedBytes}.
+ * Row keys share a prefix and only differ in their last byte, so the comparison walks the whole key.
+ */
+@BenchmarkMode(Mode.AverageTime)
+// lets HBase see java.nio.Bits.unaligned() and take its Unsafe paths, as it would on Java 8
+@Fork(value = 1, jvmArgsAppend = "--add-opens=java.base/java.nio=ALL-UNNAMED")
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Measurement(iterations = 10, time = 1)
+public class BytesCodecBenchmark {
+
+    private static final Comparator<byte[]> GUAVA_COMPARATOR = UnsignedBytes.lexicographicalComparator();
+
+    @Param({"16", "64"})
+    private int keyLength;
+
+    private long value = 1597064529541L;
+    private byte[] encoded;
+    private byte[] left;
+    private byte[] right;
+    private String text;
+    private byte[] utf8;
+    private byte[] target;
+
+    @Setup
+    public void setup() {
+        encoded = Bytes.toBytes(value);
+        left = new byte[keyLength];
+        Arrays.fill(left, (byte) 0xA5);
+        right = left.clone();
+        right[keyLength - 1] = (byte) 0xF0;
+        text = "user-été-" + "x".repeat(keyLength);
+        utf8 = text.getBytes(StandardCharsets.UTF_8);
+        target = new byte[utf8.length * 2];
+    }
+
+    @Benchmark
+    public long toLong() {
+        return Bytes.toLong(encoded);
+    }
+
+    @Benchmark
+    public long hbaseToLong() {
+        return org.apache.hadoop.hbase.util.Bytes.toLong(encoded);
+    }
+
+    @Benchmark
+    public long guavaFromByteArray() {
+        return Longs.fromByteArray(encoded);
+    }
+
+    @Benchmark
+    public long byteBufferGetLong() {
+        return ByteBuffer.wrap(encoded).getLong();
+    }
+
+    @Benchmark
+    public byte[] toBytes() {
+        return Bytes.toBytes(value);
+    }
+
+    @Benchmark
+    public byte[] hbaseToBytes() {
+        return org.apache.hadoop.hbase.util.Bytes.toBytes(value);
+    }
+
+    @Benchmark
+    public byte[] guavaToByteArray() {
+        return Longs.toByteArray(value);
+    }
+
+    @Benchmark
+    public int compareTo() {
+        return Bytes.compareTo(left, right);
+    }
+
+    @Benchmark
+    public int hbaseCompareTo() {
+        return org.apache.hadoop.hbase.util.Bytes.compareTo(left, right);
+    }
+
+    @Benchmark
+    public int guavaLexicographical() {
+        return GUAVA_COMPARATOR.compare(left, right);
+    }
+
+    @Benchmark
+    public int arraysCompareUnsigned() {
+        return Arrays.compareUnsigned(left, right);
+    }
+
+    @Benchmark
+    public String utf8ToString() {
+        return Bytes.toString(utf8, 0, utf8.length);
+    }
+
+    @Benchmark
+    public String hbaseUtf8ToString() {
+        return org.apache.hadoop.hbase.util.Bytes.toString(utf8, 0, utf8.length);
+    }
+
+    @Benchmark
+    public byte[] stringToBytes() {
+        return Bytes.toBytes(text);
+    }
+
+    @Benchmark
+    public byte[] hbaseStringToBytes() {
+        return org.apache.hadoop.hbase.util.Bytes.toBytes(text);
+    }
+
+    @Benchmark
+    public int putString() {
+        return Bytes.putString(target, 3, text);
+    }
+}
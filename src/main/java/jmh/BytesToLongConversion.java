@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.openjdk.jmh.annotations.*;
 
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.TimeUnit;
 
 @BenchmarkMode(Mode.AverageTime)
@@ -14,9 +15,14 @@ import java.util.concurrent.TimeUnit;
 @Measurement(iterations = 10, time = 1)
 public class BytesToLongConversion {
 
+    private static final TypeReference<Long> LONG_TYPE = new TypeReference<Long>() {
+    };
+
     @Param({"1597064529541", "1597219312794", "1597220926618"})
     private String timestamp;
 
+    private byte[] timestampBytes;
+
 //  public static void main(String[] args) throws IOException {
 //    String[] timestamps = {"1597064529541", "1597219312794", "1597220926618"};
 //    for (String timestamp : timestamps) {
@@ -41,6 +47,11 @@ public class BytesToLongConversion {
 //    }
 //  }
 
+    @Setup
+    public void setup() {
+        timestampBytes = timestamp.getBytes(StandardCharsets.US_ASCII);
+    }
+
     public static long bytesToLong(final byte[] bytes, final int offset) {
         long result = 0;
         for (int i = offset; i < Long.BYTES + offset; i++) {
@@ -56,11 +67,26 @@ public class BytesToLongConversion {
         });
     }
 
+    @Benchmark
+    public Long jacksonCachedReaderForLong() {
+        return ObjectMapperFactory.read(timestamp.getBytes(), LONG_TYPE);
+    }
+
+    @Benchmark
+    public long jacksonStreamingForLong() {
+        return ObjectMapperFactory.readLong(timestamp.getBytes());
+    }
+
     @Benchmark
     public Long hbaseForLong() {
         return Bytes.toLong(timestamp.getBytes());
     }
 
+    @Benchmark
+    public long bytesForLong() {
+        return jmh.Bytes.toLong(timestamp.getBytes());
+    }
+
     @Benchmark
     public Long hbaseForLongViaString() {
         return Long.parseLong(Bytes.toString(timestamp.getBytes()));
@@ -71,7 +97,24 @@ public class BytesToLongConversion {
         return Long.parseLong(Bytes.toString(timestamp.getBytes()), 10);
     }
 
+    // decodes the first eight bytes as a big-endian binary long, not as decimal digits
+    @Benchmark
     public Long utilForLong() {
         return bytesToLong(timestamp.getBytes(), 0);
     }
+
+    @Benchmark
+    public long asciiDecimalForLong() {
+        return AsciiDecimal.parseLong(timestamp.getBytes());
+    }
+
+    @Benchmark
+    public long asciiDecimalForLongPreEncoded() {
+        return AsciiDecimal.parseLong(timestampBytes);
+    }
+
+    @Benchmark
+    public long parseLongPreEncoded() {
+        return Long.parseLong(new String(timestampBytes, StandardCharsets.US_ASCII));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package jmh;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Resolves tokens to keyword ids ignoring case, straight from a {@code CharSequence} or a UTF-8 {@code byte[]}
+ * slice without building a lowercased copy. Keywords are case-folded and hashed once up front; ASCII goes through
+ * a bit trick, anything else through {@code Character.toLowerCase(Character.toUpperCase(cp))}, which is the
+ * per-character folding {@code String.equalsIgnoreCase} uses.
+ */
+public final class CaseInsensitiveDictionary {
+
+    public static final int NOT_FOUND = -1;
+
+    private final String[] keywords;
+    private final int[][] folded;
+    private final int[] hashes;
+    // id + 1 per slot, 0 for empty, linear probing
+    private final int[] slots;
+    private final int mask;
+
+    private CaseInsensitiveDictionary(List<String> keywords) {
+        this.keywords = keywords.toArray(new String[0]);
+        this.folded = new int[this.keywords.length][];
+        this.hashes = new int[this.keywords.length];
+        int capacity = Integer.highestOneBit(Math.max(this.keywords.length * 2, 2) - 1) << 1;
+        this.slots = new int[capacity];
+        this.mask = capacity - 1;
+        for (int id = 0; id < this.keywords.length; id++) {
+            String keyword = this.keywords[id];
+            int[] codePoints = keyword.codePoints().map(CaseInsensitiveDictionary::foldCodePoint).toArray();
+            int hash = 0;
+            for (int cp : codePoints) {
+                hash = 31 * hash + cp;
+            }
+            folded[id] = codePoints;
+            hashes[id] = hash;
+            int slot = mix(hash) & mask;
+            while (slots[slot] != 0) {
+                int other = slots[slot] - 1;
+                if (hashes[other] == hash && Arrays.equals(folded[other], codePoints)) {
+                    throw new IllegalArgumentException("Keywords '" + this.keywords[other] + "' and '" + keyword
+                            + "' only differ by case");
+                }
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = id + 1;
+        }
+    }
+
+    public static CaseInsensitiveDictionary of(List<String> keywords) {
+        return new CaseInsensitiveDictionary(keywords);
+    }
+
+    public static CaseInsensitiveDictionary of(String... keywords) {
+        return new CaseInsensitiveDictionary(List.of(keywords));
+    }
+
+    public int size() {
+        return keywords.length;
+    }
+
+    public String keyword(int id) {
+        return keywords[id];
+    }
+
+    /**
+     * @return the keyword id, or {@link #NOT_FOUND}
+     */
+    public int idOf(CharSequence token) {
+        int length = token.length();
+        int hash = 0;
+        int codePoints = 0;
+        for (int i = 0; i < length; i++) {
+            char c = token.charAt(i);
+            if (c < 0x80) {
+                hash = 31 * hash + foldAscii(c);
+            } else {
+                int cp = Character.codePointAt(token, i);
+                i += Character.charCount(cp) - 1;
+                hash = 31 * hash + foldCodePoint(cp);
+            }
+            codePoints++;
+        }
+        for (int slot = mix(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && folded[id].length == codePoints && matches(folded[id], token)) {
+                return id;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    public int idOf(byte[] bytes) {
+        return idOf(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Malformed UTF-8 never matches.
+     */
+    public int idOf(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        int hash = 0;
+        int codePoints = 0;
+        for (int i = offset; i < end; ) {
+            int b = bytes[i];
+            if (b >= 0) {
+                hash = 31 * hash + foldAscii(b);
+                i++;
+            } else {
+                long decoded = decodeUtf8(bytes, i, end);
+                if (decoded < 0) {
+                    return NOT_FOUND;
+                }
+                hash = 31 * hash + foldCodePoint((int) decoded);
+                i += (int) (decoded >>> 32);
+            }
+            codePoints++;
+        }
+        for (int slot = mix(hash) & mask; slots[slot] != 0; slot = (slot + 1) & mask) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && folded[id].length == codePoints && matches(folded[id], bytes, offset, end)) {
+                return id;
+            }
+        }
+        return NOT_FOUND;
+    }
+
+    private static boolean matches(int[] keyword, CharSequence token) {
+        for (int i = 0, k = 0, length = token.length(); i < length; i++, k++) {
+            char c = token.charAt(i);
+            int folded;
+            if (c < 0x80) {
+                folded = foldAscii(c);
+            } else {
+                int cp = Character.codePointAt(token, i);
+                i += Character.charCount(cp) - 1;
+                folded = foldCodePoint(cp);
+            }
+            if (keyword[k] != folded) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(int[] keyword, byte[] bytes, int offset, int end) {
+        for (int i = offset, k = 0; i < end; k++) {
+            int b = bytes[i];
+            int folded;
+            if (b >= 0) {
+                folded = foldAscii(b);
+                i++;
+            } else {
+                long decoded = decodeUtf8(bytes, i, end);
+                folded = foldCodePoint((int) decoded);
+                i += (int) (decoded >>> 32);
+            }
+            if (keyword[k] != folded) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int foldAscii(int c) {
+        return c >= 'A' && c <= 'Z' ? c | 0x20 : c;
+    }
+
+    private static int foldCodePoint(int cp) {
+        return cp < 0x80 ? foldAscii(cp) : Character.toLowerCase(Character.toUpperCase(cp));
+    }
+
+    /**
+     * @return the code point in the low 32 bits and the number of bytes it took in the high ones, or -1 if malformed
+     */
+    private static long decodeUtf8(byte[] bytes, int i, int end) {
+        int b = bytes[i] & 0xFF;
+        int count;
+        int cp;
+        if (b >= 0xC2 && b <= 0xDF) {
+            count = 2;
+            cp = b & 0x1F;
+        } else if (b >= 0xE0 && b <= 0xEF) {
+            count = 3;
+            cp = b & 0x0F;
+        } else if (b >= 0xF0 && b <= 0xF4) {
+            count = 4;
+            cp = b & 0x07;
+        } else {
+            return -1;
+        }
+        if (i + count > end) {
+            return -1;
+        }
+        for (int n = 1; n < count; n++) {
+            int next = bytes[i + n] & 0xFF;
+            if ((next & 0xC0) != 0x80) {
+                return -1;
+            }
+            cp = (cp << 6) | (next & 0x3F);
+        }
+        // overlong encodings, surrogates and anything past U+10FFFF
+        if ((count == 3 && cp < 0x800) || (count == 4 && (cp < 0x10000 || cp > 0x10FFFF))
+                || (cp >= 0xD800 && cp <= 0xDFFF)) {
+            return -1;
+        }
+        return ((long) count << 32) | cp;
+    }
+
+    private static int mix(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
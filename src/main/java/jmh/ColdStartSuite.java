@@ -0,0 +1,192 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * What the first call costs in a fresh JVM: bootstrapping n distinct lambda or method reference call sites against
+ * loading n anonymous classes, and a static initializer running a parallel stream against the holder idiom, which
+ * defers the same work to first use. Every fork is a new JVM measured exactly once, so it is all class loading,
+ * linkage and interpretation, nothing JIT compiled.
+ * <p>
+ * Run {@code main} to measure each case twice: once as is, and once against a dynamic AppCDS archive dumped by a
+ * training JVM first ({@code -XX:ArchiveClassesAtExit} then {@code -XX:SharedArchiveFile}), which also archives
+ * the generated lambda proxy classes. CDS only takes jars on the class path, so run it from the shaded jar:
+ * {@code java -cp target/benchmarkers.jar jmh.ColdStartSuite}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class ColdStartSuite {
+
+    private static final Path ARCHIVE = Path.of("target", "cold-start.jsa").toAbsolutePath();
+
+    @State(Scope.Benchmark)
+    public static class Sites {
+
+        @Param({"1", "8", "64"})
+        int count;
+    }
+
+    @Benchmark
+    public int lambdas(Sites sites) {
+        int sum = 0;
+        for (int i = 0; i < sites.count; i++) {
+            sum += ColdStartTargets.lambda(i).getAsInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int methodRefs(Sites sites) {
+        int sum = 0;
+        for (int i = 0; i < sites.count; i++) {
+            sum += ColdStartTargets.methodRef(i).getAsInt();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int anonymousClasses(Sites sites) {
+        int sum = 0;
+        for (int i = 0; i < sites.count; i++) {
+            sum += ColdStartTargets.anonymous(i).getAsInt();
+        }
+        return sum;
+    }
+
+    /**
+     * Any use of the class pays for the parallel stream, including starting the common pool.
+     */
+    @Benchmark
+    public String eagerParallelInit() {
+        return EagerTable.name();
+    }
+
+    @Benchmark
+    public String holderUntouched() {
+        return LazyTable.name();
+    }
+
+    @Benchmark
+    public int holderFirstUse() {
+        return LazyTable.sum();
+    }
+
+    static class EagerTable {
+        // Integer::sum rather than a lambda: a lambda body would be a method of this class, and the pool threads
+        // calling it would wait for this very initializer to finish, which is waiting for them
+        private static final int SUM = IntStream.range(0, 100_000).parallel().reduce(0, Integer::sum);
+
+        static String name() {
+            return "eager";
+        }
+
+        static int sum() {
+            return SUM;
+        }
+    }
+
+    static class LazyTable {
+
+        static String name() {
+            return "lazy";
+        }
+
+        static int sum() {
+            return Holder.SUM;
+        }
+
+        // the same parallel reduction as EagerTable, only run on first use; deadlock-safe for the same reason
+        private static class Holder {
+            private static final int SUM = IntStream.range(0, 100_000).parallel().reduce(0, Integer::sum);
+        }
+    }
+
+    /**
+     * Touches every case once, so the archive it dumps at exit holds everything the benchmarks load.
+     */
+    static class Training {
+
+        public static void main(String[] args) {
+            int sum = 0;
+            for (int i = 0; i < ColdStartTargets.SITES; i++) {
+                sum += ColdStartTargets.lambda(i).getAsInt()
+                        + ColdStartTargets.methodRef(i).getAsInt()
+                        + ColdStartTargets.anonymous(i).getAsInt();
+            }
+            sum += EagerTable.sum() + LazyTable.sum();
+            System.out.println("Trained with checksum " + sum);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException, IOException, InterruptedException {
+        dumpArchive();
+        Collection<RunResult> plain = new Runner(new OptionsBuilder()
+                .include(ColdStartSuite.class.getName())
+                .build()).run();
+        Collection<RunResult> archived = new Runner(new OptionsBuilder()
+                .include(ColdStartSuite.class.getName())
+                .jvmArgsAppend("-XX:SharedArchiveFile=" + ARCHIVE)
+                .build()).run();
+
+        printComparison(plain, archived);
+    }
+
+    // the forks get the same class path as this JVM, which the archive requires
+    private static void dumpArchive() throws IOException, InterruptedException {
+        String classPath = System.getProperty("java.class.path");
+        for (String entry : classPath.split(File.pathSeparator)) {
+            if (Files.isDirectory(Path.of(entry))) {
+                throw new IllegalStateException("CDS cannot archive classes from directory " + entry
+                        + ", run from target/benchmarkers.jar");
+            }
+        }
+        Files.createDirectories(ARCHIVE.getParent());
+        Files.deleteIfExists(ARCHIVE);
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process training = new ProcessBuilder(java, "-XX:ArchiveClassesAtExit=" + ARCHIVE,
+                "-cp", classPath, Training.class.getName())
+                .inheritIO()
+                .start();
+        if (training.waitFor() != 0 || !Files.exists(ARCHIVE)) {
+            throw new IllegalStateException("Training run did not dump " + ARCHIVE);
+        }
+    }
+
+    private static void printComparison(Collection<RunResult> plain, Collection<RunResult> archived) {
+        Map<String, Double> withArchive = new HashMap<>();
+        for (RunResult result : archived) {
+            withArchive.put(key(result), result.getPrimaryResult().getScore());
+        }
+        System.out.printf("%n%-40s %14s %14s %8s%n", "Case", "no CDS (us)", "AppCDS (us)", "ratio");
+        for (RunResult result : plain) {
+            String key = key(result);
+            double score = result.getPrimaryResult().getScore();
+            Double shared = withArchive.get(key);
+            System.out.printf(Locale.ROOT, "%-40s %14.1f %14s %8s%n", key, score,
+                    shared == null ? "-" : String.format(Locale.ROOT, "%.1f", shared),
+                    shared == null ? "-" : String.format(Locale.ROOT, "%.2fx", score / shared));
+        }
+    }
+
+    private static String key(RunResult result) {
+        String benchmark = result.getParams().getBenchmark();
+        String name = benchmark.substring(benchmark.lastIndexOf('.') + 1);
+        String count = result.getParams().getParam("count");
+        return count == null ? name : name + " count=" + count;
+    }
+}
@@ -0,0 +1,801 @@
+package jmh;
+
+import java.util.function.IntSupplier;
+
+/**
+ * {@value #SITES} distinct lambda, method reference and anonymous class sites for {@link ColdStartSuite}, so that
+ * asking for the first n of them bootstraps n separate invokedynamic call sites or loads n separate classes.
+ */
+final class ColdStartTargets {
+
+    static final int SITES = 64;
+
+    private ColdStartTargets() {
+    }
+
+    static IntSupplier lambda(int site) {
+        return switch (site) {
+            case 0 -> () -> 0;
+            case 1 -> () -> 1;
+            case 2 -> () -> 2;
+            case 3 -> () -> 3;
+            case 4 -> () -> 4;
+            case 5 -> () -> 5;
+            case 6 -> () -> 6;
+            case 7 -> () -> 7;
+            case 8 -> () -> 8;
+            case 9 -> () -> 9;
+            case 10 -> () -> 10;
+            case 11 -> () -> 11;
+            case 12 -> () -> 12;
+            case 13 -> () -> 13;
+            case 14 -> () -> 14;
+            case 15 -> () -> 15;
+            case 16 -> () -> 16;
+            case 17 -> () -> 17;
+            case 18 -> () -> 18;
+            case 19 -> () -> 19;
+            case 20 -> () -> 20;
+            case 21 -> () -> 21;
+            case 22 -> () -> 22;
+            case 23 -> () -> 23;
+            case 24 -> () -> 24;
+            case 25 -> () -> 25;
+            case 26 -> () -> 26;
+            case 27 -> () -> 27;
+            case 28 -> () -> 28;
+            case 29 -> () -> 29;
+            case 30 -> () -> 30;
+            case 31 -> () -> 31;
+            case 32 -> () -> 32;
+            case 33 -> () -> 33;
+            case 34 -> () -> 34;
+            case 35 -> () -> 35;
+            case 36 -> () -> 36;
+            case 37 -> () -> 37;
+            case 38 -> () -> 38;
+            case 39 -> () -> 39;
+            case 40 -> () -> 40;
+            case 41 -> () -> 41;
+            case 42 -> () -> 42;
+            case 43 -> () -> 43;
+            case 44 -> () -> 44;
+            case 45 -> () -> 45;
+            case 46 -> () -> 46;
+            case 47 -> () -> 47;
+            case 48 -> () -> 48;
+            case 49 -> () -> 49;
+            case 50 -> () -> 50;
+            case 51 -> () -> 51;
+            case 52 -> () -> 52;
+            case 53 -> () -> 53;
+            case 54 -> () -> 54;
+            case 55 -> () -> 55;
+            case 56 -> () -> 56;
+            case 57 -> () -> 57;
+            case 58 -> () -> 58;
+            case 59 -> () -> 59;
+            case 60 -> () -> 60;
+            case 61 -> () -> 61;
+            case 62 -> () -> 62;
+            case 63 -> () -> 63;
+            default -> throw new IllegalArgumentException("No lambda site " + site);
+        };
+    }
+
+    static IntSupplier methodRef(int site) {
+        return switch (site) {
+            case 0 -> ColdStartTargets::v0;
+            case 1 -> ColdStartTargets::v1;
+            case 2 -> ColdStartTargets::v2;
+            case 3 -> ColdStartTargets::v3;
+            case 4 -> ColdStartTargets::v4;
+            case 5 -> ColdStartTargets::v5;
+            case 6 -> ColdStartTargets::v6;
+            case 7 -> ColdStartTargets::v7;
+            case 8 -> ColdStartTargets::v8;
+            case 9 -> ColdStartTargets::v9;
+            case 10 -> ColdStartTargets::v10;
+            case 11 -> ColdStartTargets::v11;
+            case 12 -> ColdStartTargets::v12;
+            case 13 -> ColdStartTargets::v13;
+            case 14 -> ColdStartTargets::v14;
+            case 15 -> ColdStartTargets::v15;
+            case 16 -> ColdStartTargets::v16;
+            case 17 -> ColdStartTargets::v17;
+            case 18 -> ColdStartTargets::v18;
+            case 19 -> ColdStartTargets::v19;
+            case 20 -> ColdStartTargets::v20;
+            case 21 -> ColdStartTargets::v21;
+            case 22 -> ColdStartTargets::v22;
+            case 23 -> ColdStartTargets::v23;
+            case 24 -> ColdStartTargets::v24;
+            case 25 -> ColdStartTargets::v25;
+            case 26 -> ColdStartTargets::v26;
+            case 27 -> ColdStartTargets::v27;
+            case 28 -> ColdStartTargets::v28;
+            case 29 -> ColdStartTargets::v29;
+            case 30 -> ColdStartTargets::v30;
+            case 31 -> ColdStartTargets::v31;
+            case 32 -> ColdStartTargets::v32;
+            case 33 -> ColdStartTargets::v33;
+            case 34 -> ColdStartTargets::v34;
+            case 35 -> ColdStartTargets::v35;
+            case 36 -> ColdStartTargets::v36;
+            case 37 -> ColdStartTargets::v37;
+            case 38 -> ColdStartTargets::v38;
+            case 39 -> ColdStartTargets::v39;
+            case 40 -> ColdStartTargets::v40;
+            case 41 -> ColdStartTargets::v41;
+            case 42 -> ColdStartTargets::v42;
+            case 43 -> ColdStartTargets::v43;
+            case 44 -> ColdStartTargets::v44;
+            case 45 -> ColdStartTargets::v45;
+            case 46 -> ColdStartTargets::v46;
+            case 47 -> ColdStartTargets::v47;
+            case 48 -> ColdStartTargets::v48;
+            case 49 -> ColdStartTargets::v49;
+            case 50 -> ColdStartTargets::v50;
+            case 51 -> ColdStartTargets::v51;
+            case 52 -> ColdStartTargets::v52;
+            case 53 -> ColdStartTargets::v53;
+            case 54 -> ColdStartTargets::v54;
+            case 55 -> ColdStartTargets::v55;
+            case 56 -> ColdStartTargets::v56;
+            case 57 -> ColdStartTargets::v57;
+            case 58 -> ColdStartTargets::v58;
+            case 59 -> ColdStartTargets::v59;
+            case 60 -> ColdStartTargets::v60;
+            case 61 -> ColdStartTargets::v61;
+            case 62 -> ColdStartTargets::v62;
+            case 63 -> ColdStartTargets::v63;
+            default -> throw new IllegalArgumentException("No method reference site " + site);
+        };
+    }
+
+    static IntSupplier anonymous(int site) {
+        return switch (site) {
+            case 0 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 0;
+                }
+            };
+            case 1 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 1;
+                }
+            };
+            case 2 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 2;
+                }
+            };
+            case 3 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 3;
+                }
+            };
+            case 4 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 4;
+                }
+            };
+            case 5 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 5;
+                }
+            };
+            case 6 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 6;
+                }
+            };
+            case 7 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 7;
+                }
+            };
+            case 8 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 8;
+                }
+            };
+            case 9 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 9;
+                }
+            };
+            case 10 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 10;
+                }
+            };
+            case 11 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 11;
+                }
+            };
+            case 12 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 12;
+                }
+            };
+            case 13 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 13;
+                }
+            };
+            case 14 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 14;
+                }
+            };
+            case 15 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 15;
+                }
+            };
+            case 16 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 16;
+                }
+            };
+            case 17 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 17;
+                }
+            };
+            case 18 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 18;
+                }
+            };
+            case 19 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 19;
+                }
+            };
+            case 20 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 20;
+                }
+            };
+            case 21 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 21;
+                }
+            };
+            case 22 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 22;
+                }
+            };
+            case 23 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 23;
+                }
+            };
+            case 24 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 24;
+                }
+            };
+            case 25 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 25;
+                }
+            };
+            case 26 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 26;
+                }
+            };
+            case 27 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 27;
+                }
+            };
+            case 28 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 28;
+                }
+            };
+            case 29 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 29;
+                }
+            };
+            case 30 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 30;
+                }
+            };
+            case 31 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 31;
+                }
+            };
+            case 32 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 32;
+                }
+            };
+            case 33 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 33;
+                }
+            };
+            case 34 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 34;
+                }
+            };
+            case 35 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 35;
+                }
+            };
+            case 36 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 36;
+                }
+            };
+            case 37 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 37;
+                }
+            };
+            case 38 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 38;
+                }
+            };
+            case 39 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 39;
+                }
+            };
+            case 40 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 40;
+                }
+            };
+            case 41 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 41;
+                }
+            };
+            case 42 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 42;
+                }
+            };
+            case 43 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 43;
+                }
+            };
+            case 44 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 44;
+                }
+            };
+            case 45 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 45;
+                }
+            };
+            case 46 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 46;
+                }
+            };
+            case 47 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 47;
+                }
+            };
+            case 48 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 48;
+                }
+            };
+            case 49 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 49;
+                }
+            };
+            case 50 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 50;
+                }
+            };
+            case 51 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 51;
+                }
+            };
+            case 52 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 52;
+                }
+            };
+            case 53 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 53;
+                }
+            };
+            case 54 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 54;
+                }
+            };
+            case 55 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 55;
+                }
+            };
+            case 56 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 56;
+                }
+            };
+            case 57 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 57;
+                }
+            };
+            case 58 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 58;
+                }
+            };
+            case 59 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 59;
+                }
+            };
+            case 60 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 60;
+                }
+            };
+            case 61 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 61;
+                }
+            };
+            case 62 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 62;
+                }
+            };
+            case 63 -> new IntSupplier() {
+                @Override
+                public int getAsInt() {
+                    return 63;
+                }
+            };
+            default -> throw new IllegalArgumentException("No anonymous class site " + site);
+        };
+    }
+
+    private static int v0() {
+        return 0;
+    }
+
+    private static int v1() {
+        return 1;
+    }
+
+    private static int v2() {
+        return 2;
+    }
+
+    private static int v3() {
+        return 3;
+    }
+
+    private static int v4() {
+        return 4;
+    }
+
+    private static int v5() {
+        return 5;
+    }
+
+    private static int v6() {
+        return 6;
+    }
+
+    private static int v7() {
+        return 7;
+    }
+
+    private static int v8() {
+        return 8;
+    }
+
+    private static int v9() {
+        return 9;
+    }
+
+    private static int v10() {
+        return 10;
+    }
+
+    private static int v11() {
+        return 11;
+    }
+
+    private static int v12() {
+        return 12;
+    }
+
+    private static int v13() {
+        return 13;
+    }
+
+    private static int v14() {
+        return 14;
+    }
+
+    private static int v15() {
+        return 15;
+    }
+
+    private static int v16() {
+        return 16;
+    }
+
+    private static int v17() {
+        return 17;
+    }
+
+    private static int v18() {
+        return 18;
+    }
+
+    private static int v19() {
+        return 19;
+    }
+
+    private static int v20() {
+        return 20;
+    }
+
+    private static int v21() {
+        return 21;
+    }
+
+    private static int v22() {
+        return 22;
+    }
+
+    private static int v23() {
+        return 23;
+    }
+
+    private static int v24() {
+        return 24;
+    }
+
+    private static int v25() {
+        return 25;
+    }
+
+    private static int v26() {
+        return 26;
+    }
+
+    private static int v27() {
+        return 27;
+    }
+
+    private static int v28() {
+        return 28;
+    }
+
+    private static int v29() {
+        return 29;
+    }
+
+    private static int v30() {
+        return 30;
+    }
+
+    private static int v31() {
+        return 31;
+    }
+
+    private static int v32() {
+        return 32;
+    }
+
+    private static int v33() {
+        return 33;
+    }
+
+    private static int v34() {
+        return 34;
+    }
+
+    private static int v35() {
+        return 35;
+    }
+
+    private static int v36() {
+        return 36;
+    }
+
+    private static int v37() {
+        return 37;
+    }
+
+    private static int v38() {
+        return 38;
+    }
+
+    private static int v39() {
+        return 39;
+    }
+
+    private static int v40() {
+        return 40;
+    }
+
+    private static int v41() {
+        return 41;
+    }
+
+    private static int v42() {
+        return 42;
+    }
+
+    private static int v43() {
+        return 43;
+    }
+
+    private static int v44() {
+        return 44;
+    }
+
+    private static int v45() {
+        return 45;
+    }
+
+    private static int v46() {
+        return 46;
+    }
+
+    private static int v47() {
+        return 47;
+    }
+
+    private static int v48() {
+        return 48;
+    }
+
+    private static int v49() {
+        return 49;
+    }
+
+    private static int v50() {
+        return 50;
+    }
+
+    private static int v51() {
+        return 51;
+    }
+
+    private static int v52() {
+        return 52;
+    }
+
+    private static int v53() {
+        return 53;
+    }
+
+    private static int v54() {
+        return 54;
+    }
+
+    private static int v55() {
+        return 55;
+    }
+
+    private static int v56() {
+        return 56;
+    }
+
+    private static int v57() {
+        return 57;
+    }
+
+    private static int v58() {
+        return 58;
+    }
+
+    private static int v59() {
+        return 59;
+    }
+
+    private static int v60() {
+        return 60;
+    }
+
+    private static int v61() {
+        return 61;
+    }
+
+    private static int v62() {
+        return 62;
+    }
+
+    private static int v63() {
+        return 63;
+    }
+}
@@ -48,6 +48,13 @@ public class CollectorsVsStreamToList {
     public List<Integer> viaStreamParallel(MyState myState) {
         return Arrays.stream(myState.randomIntsArray).parallel().toList();
     }
+
+    // 1000 elements is below ParallelLists.MIN_LEAF_SIZE, so this one stays on the calling thread,
+    // see ParallelListCollection for the larger sizes
+    @Benchmark
+    public List<Integer> viaPresizedParallel(MyState myState) {
+        return ParallelLists.toList(Arrays.stream(myState.randomIntsArray));
+    }
 }
 /*
  * Benchmark         (with Set)                                                    Mode  Cnt     Score    Error   Units
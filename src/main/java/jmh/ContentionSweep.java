@@ -0,0 +1,95 @@
+package jmh;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Runs a contention suite twice over: its symmetric benchmarks at every thread count from 1 to all cores, and its
+ * {@code ...Mix} groups at each reader:writer ratio. Groups list their reader method first, JMH hands out the
+ * {@code threadGroups} counts in method name order. Each sweep ends with a table of total throughput.
+ */
+final class ContentionSweep {
+
+    private static final String GROUPS = ".*Mix$";
+
+    private ContentionSweep() {
+    }
+
+    /**
+     * @return 1, 2, 4, ... up to and always including the number of cores
+     */
+    static int[] threadCounts() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int threads = 1; threads < cores; threads *= 2) {
+            counts.add(threads);
+        }
+        counts.add(cores);
+        return counts.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    static void run(Class<?> suite, int[]... ratios) throws RunnerException {
+        String name = suite.getSimpleName();
+        Map<String, Map<String, Double>> symmetric = new TreeMap<>();
+        for (int threads : threadCounts()) {
+            for (RunResult result : new Runner(new OptionsBuilder()
+                    .include(name + "\\.")
+                    .exclude(GROUPS)
+                    .threads(threads)
+                    .build()).run()) {
+                record(symmetric, result, threads + " threads");
+            }
+        }
+        Map<String, Map<String, Double>> mixed = new TreeMap<>();
+        for (int[] ratio : ratios) {
+            for (RunResult result : new Runner(new OptionsBuilder()
+                    .include(name + "\\." + GROUPS)
+                    .threadGroups(ratio)
+                    .build()).run()) {
+                record(mixed, result, ratio[0] + ":" + ratio[1]);
+            }
+        }
+        print(name + ", threads", symmetric);
+        print(name + ", readers:writers", mixed);
+    }
+
+    private static void record(Map<String, Map<String, Double>> table, RunResult result, String column) {
+        String benchmark = result.getParams().getBenchmark();
+        StringBuilder row = new StringBuilder(benchmark.substring(benchmark.lastIndexOf('.') + 1));
+        for (String key : result.getParams().getParamsKeys()) {
+            row.append(' ').append(key).append('=').append(result.getParams().getParam(key));
+        }
+        table.computeIfAbsent(row.toString(), ignored -> new TreeMap<>(ContentionSweep::compareColumns))
+                .put(column, result.getPrimaryResult().getScore());
+    }
+
+    // numerically, so 16 threads sorts after 2 threads and 15:1 after 3:1
+    private static int compareColumns(String a, String b) {
+        return Arrays.compare(numbers(a), numbers(b));
+    }
+
+    private static int[] numbers(String column) {
+        return Arrays.stream(column.split("[^0-9]+")).filter(part -> !part.isEmpty())
+                .mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static void print(String title, Map<String, Map<String, Double>> table) {
+        if (table.isEmpty()) {
+            return;
+        }
+        System.out.printf("%n%s, total ops/us%n", title);
+        for (Map.Entry<String, Map<String, Double>> row : table.entrySet()) {
+            StringBuilder line = new StringBuilder(String.format("%-40s", row.getKey()));
+            row.getValue().forEach((column, score) -> line.append(String.format("  %s: %10.1f", column, score)));
+            System.out.println(line);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One shared counter hammered by every thread: a single CAS'd {@code AtomicLong}, {@code LongAdder}, and the
+ * fixed-stripe {@link StripedCounter}. The {@code ...Mix} groups add a thread reading the total while three
+ * increment, where the striped designs pay for their cheap writes with a read that walks every cell.
+ * {@link #main} sweeps 1 to all cores and a few reader:writer ratios.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CounterContention {
+
+    private AtomicLong atomic;
+    private LongAdder adder;
+    private StripedCounter striped;
+
+    public static void main(String[] args) throws RunnerException {
+        ContentionSweep.run(CounterContention.class, new int[]{1, 1}, new int[]{1, 3}, new int[]{1, 7});
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        atomic = new AtomicLong();
+        adder = new LongAdder();
+        striped = new StripedCounter();
+    }
+
+    @Benchmark
+    public long atomicLong() {
+        return atomic.incrementAndGet();
+    }
+
+    @Benchmark
+    public void longAdder() {
+        adder.increment();
+    }
+
+    @Benchmark
+    public void stripedCounter() {
+        striped.increment();
+    }
+
+    @Benchmark
+    @Group("atomicLongMix")
+    @GroupThreads(1)
+    public long atomicLongRead() {
+        return atomic.get();
+    }
+
+    @Benchmark
+    @Group("atomicLongMix")
+    @GroupThreads(3)
+    public long atomicLongWrite() {
+        return atomic.incrementAndGet();
+    }
+
+    @Benchmark
+    @Group("longAdderMix")
+    @GroupThreads(1)
+    public long longAdderRead() {
+        return adder.sum();
+    }
+
+    @Benchmark
+    @Group("longAdderMix")
+    @GroupThreads(3)
+    public void longAdderWrite() {
+        adder.increment();
+    }
+
+    @Benchmark
+    @Group("stripedCounterMix")
+    @GroupThreads(1)
+    public long stripedCounterRead() {
+        return striped.sum();
+    }
+
+    @Benchmark
+    @Group("stripedCounterMix")
+    @GroupThreads(3)
+    public void stripedCounterWrite() {
+        striped.increment();
+    }
+}
@@ -0,0 +1,292 @@
+package jmh;
+
+import com.sun.management.UnixOperatingSystemMXBean;
+import gc.LatencyHistogram;
+import gc.LatencyRecorder;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Closed-loop load against {@link EchoServer} over loopback: every connection sends a frame, waits for the echo and
+ * sends the next, on its own virtual thread. The server runs in a forked JVM so its resident memory and thread
+ * count are its own. Per run it prints requests per second, round-trip latency percentiles, how many connections
+ * got at least one response during the measurement, and the server's RSS, peak RSS and thread count.
+ * <p>
+ * Requests still unanswered when the measurement ends go into the percentiles with the time they have been
+ * waiting so far, a lower bound. Their number is printed as censored, next to how many went unanswered for the
+ * whole measurement. Without that a model that starves most connections would report only the fast round trips
+ * of the few it serves.
+ * <p>
+ * {@code PLATFORM} only ever serves {@value EchoServer#PLATFORM_POOL_SIZE} connections and {@code VIRTUAL_PINNED}
+ * only about as many as there are carrier threads (one per core), everything else sits in a queue or behind a
+ * blocked carrier.
+ * The served count shows that rather than hiding it in the averages, which is the point of having those two models.
+ * <p>
+ * Each connection needs a descriptor on both sides, points above the process limit ({@code ulimit -n}) are skipped.
+ * Clients bind to a different 127.0.0.x source address every 10000 connections so 50k connections do not run out
+ * of ephemeral ports. RSS and threads come from {@code /proc} and are only there on Linux.
+ */
+// java jmh.EchoLoadTest [models=VIRTUAL,SELECTOR] [connections=100,1000] [payloads=64] [warmup=5] [seconds=10]
+public class EchoLoadTest {
+
+    private static final int CONNECTIONS_PER_SOURCE_ADDRESS = 10_000;
+    // the client JVM's own files and sockets, jars on the class path, the server's stdin and stdout
+    private static final int DESCRIPTOR_HEADROOM = 256;
+    // server heap: a base for the JVM itself, then per connection its socket objects, a virtual thread's stack
+    // chunks and one frame in flight
+    private static final long SERVER_BASE_HEAP_BYTES = 256L << 20;
+    private static final long SERVER_CONNECTION_HEAP_BYTES = 16 << 10;
+
+    public static void main(String... args) throws Exception {
+        EchoServer.Model[] models = EchoServer.Model.values();
+        int[] connections = {100, 1_000, 10_000, 50_000};
+        int[] payloads = {64, 1024, 16 * 1024};
+        int warmup = 5;
+        int seconds = 10;
+        for (String arg : args) {
+            String[] option = arg.split("=", 2);
+            if (option.length != 2) {
+                throw new IllegalArgumentException("Expected key=value, got " + arg);
+            }
+            switch (option[0]) {
+                case "models" -> models = Arrays.stream(option[1].split(","))
+                        .map(EchoServer.Model::valueOf).toArray(EchoServer.Model[]::new);
+                case "connections" -> connections = ints(option[1]);
+                case "payloads" -> payloads = ints(option[1]);
+                case "warmup" -> warmup = Integer.parseInt(option[1]);
+                case "seconds" -> seconds = Integer.parseInt(option[1]);
+                default -> throw new IllegalArgumentException("Unknown option " + option[0]);
+            }
+        }
+        long descriptors = maxFileDescriptors();
+        for (EchoServer.Model model : models) {
+            for (int payload : payloads) {
+                for (int count : connections) {
+                    if (count + DESCRIPTOR_HEADROOM > descriptors) {
+                        System.out.printf("%s connections=%d payload=%d: skipped, %d file descriptors allowed%n",
+                                model, count, payload, descriptors);
+                        continue;
+                    }
+                    System.out.println(run(model, count, payload, warmup, seconds));
+                }
+            }
+        }
+    }
+
+    private static int[] ints(String values) {
+        return Arrays.stream(values.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    private static long maxFileDescriptors() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        return os instanceof UnixOperatingSystemMXBean unix ? unix.getMaxFileDescriptorCount() : Long.MAX_VALUE;
+    }
+
+    static String run(EchoServer.Model model, int connections, int payload, int warmupSeconds, int seconds)
+            throws IOException, InterruptedException {
+        String label = String.format("%s connections=%d payload=%d", model, connections, payload);
+        Process server = startServer(model, connections, payload);
+        List<Socket> sockets = new ArrayList<>(connections);
+        LatencyRecorder latencies = new LatencyRecorder();
+        Clients clients = new Clients(connections);
+        try {
+            InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port(server));
+            long connectStart = System.nanoTime();
+            for (int i = 0; i < connections; i++) {
+                sockets.add(connect(address, i));
+            }
+            long connectMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - connectStart);
+            for (int i = 0; i < connections; i++) {
+                int index = i;
+                Socket socket = sockets.get(i);
+                clients.executor.execute(() -> clients.loop(socket, payload, latencies, index));
+            }
+
+            Thread.sleep(TimeUnit.SECONDS.toMillis(warmupSeconds));
+            latencies.intervalSnapshot();
+            long[] before = snapshot(clients.responses);
+            long start = System.nanoTime();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(seconds));
+            LatencyHistogram histogram = latencies.intervalSnapshot();
+            long end = System.nanoTime();
+            long[] after = snapshot(clients.responses);
+            // in a closed loop every connection has one request in flight, the starved ones were sent before the window
+            int censored = 0;
+            int starved = 0;
+            for (int i = 0; i < connections; i++) {
+                long sent = clients.pending.get(i);
+                if (sent != 0 && sent < end) {
+                    histogram.record(end - sent);
+                    censored++;
+                    if (sent < start) {
+                        starved++;
+                    }
+                }
+            }
+            // sampled while every connection is still open
+            String memory = serverStatus(server.pid());
+            if (!server.isAlive()) {
+                return label + ": failed, server exited with status " + server.exitValue();
+            }
+
+            int served = 0;
+            for (int i = 0; i < connections; i++) {
+                if (after[i] > before[i]) {
+                    served++;
+                }
+            }
+            return String.format("%s: %.0f req/s, %s (%d censored, %d unanswered all window), served %d/%d "
+                            + "connections, connected in %d ms, %s", label,
+                    (histogram.count() - censored) * 1e9 / (end - start), histogram.format(TimeUnit.MICROSECONDS),
+                    censored, starved, served, connections, connectMillis, memory);
+        } catch (IOException e) {
+            return label + ": failed, " + e;
+        } finally {
+            clients.stop(sockets);
+            stopServer(server);
+        }
+    }
+
+    // running out of heap would otherwise just end some handlers and show up as fewer connections served
+    private static Process startServer(EchoServer.Model model, int connections, int payload) throws IOException {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        long heap = SERVER_BASE_HEAP_BYTES + connections * (SERVER_CONNECTION_HEAP_BYTES + payload);
+        return new ProcessBuilder(java, "--enable-preview", "-Xmx" + (heap >> 20) + "m",
+                "-XX:+ExitOnOutOfMemoryError",
+                "-cp", System.getProperty("java.class.path"),
+                EchoServer.class.getName(), model.name(), Integer.toString(payload))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private static int port(Process server) throws IOException {
+        // not closed, that would close the server's stdout and it has nothing more to say anyway
+        BufferedReader out = new BufferedReader(new InputStreamReader(server.getInputStream(), StandardCharsets.UTF_8));
+        String line = out.readLine();
+        if (line == null || !line.startsWith("listening ")) {
+            throw new IllegalStateException("Echo server did not start, said " + line);
+        }
+        return Integer.parseInt(line.substring("listening ".length()));
+    }
+
+    // every source address has its own ephemeral port range, 127.0.0.0/8 is all loopback on Linux
+    private static Socket connect(InetSocketAddress server, int index) throws IOException {
+        byte[] source = {127, 0, 0, (byte) (1 + index / CONNECTIONS_PER_SOURCE_ADDRESS)};
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.bind(new InetSocketAddress(InetAddress.getByAddress(source), 0));
+            socket.connect(server);
+            return socket;
+        } catch (IOException e) {
+            socket.close();
+            throw e;
+        }
+    }
+
+    private static long[] snapshot(AtomicLongArray counters) {
+        long[] values = new long[counters.length()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = counters.get(i);
+        }
+        return values;
+    }
+
+    private static String serverStatus(long pid) throws IOException {
+        long rss = -1;
+        long peak = -1;
+        long threads = -1;
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                String[] fields = line.split("\\s+");
+                switch (fields[0]) {
+                    case "VmRSS:" -> rss = Long.parseLong(fields[1]);
+                    case "VmHWM:" -> peak = Long.parseLong(fields[1]);
+                    case "Threads:" -> threads = Long.parseLong(fields[1]);
+                    default -> {
+                    }
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return "server memory and threads not available";
+        }
+        return String.format("server RSS %d MB (peak %d MB), %d threads", rss / 1024, peak / 1024, threads);
+    }
+
+    private static void stopServer(Process server) throws IOException, InterruptedException {
+        server.getOutputStream().close();
+        if (!server.waitFor(10, TimeUnit.SECONDS)) {
+            server.destroyForcibly().waitFor();
+        }
+    }
+
+    private static final class Clients {
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        // per connection: responses received, and when the unanswered request was sent or 0 if there is none;
+        // only the connection's own thread writes its slots, the main thread just reads them
+        private final AtomicLongArray responses;
+        private final AtomicLongArray pending;
+        private volatile boolean stopped;
+
+        private Clients(int connections) {
+            responses = new AtomicLongArray(connections);
+            pending = new AtomicLongArray(connections);
+        }
+
+        private void loop(Socket socket, int payload, LatencyRecorder latencies, int index) {
+            byte[] request = new byte[Integer.BYTES + payload];
+            ThreadLocalRandom.current().nextBytes(request);
+            Bytes.putInt(request, 0, payload);
+            byte[] response = new byte[request.length];
+            try {
+                OutputStream out = socket.getOutputStream();
+                DataInputStream in = new DataInputStream(socket.getInputStream());
+                while (!stopped) {
+                    long start = System.nanoTime();
+                    pending.lazySet(index, start);
+                    out.write(request);
+                    in.readFully(response);
+                    // cleared before recording, so a request is never both a sample and censored
+                    pending.lazySet(index, 0);
+                    latencies.recordSince(start);
+                    if (!Arrays.equals(request, response)) {
+                        throw new IllegalStateException("Echo server sent back something else");
+                    }
+                    responses.lazySet(index, responses.get(index) + 1);
+                }
+            } catch (IOException e) {
+                // closed under us by stop(), or a starved connection that never got a response
+            }
+        }
+
+        // connections the server never picked up are blocked in a read, closing the socket is what ends them
+        private void stop(List<Socket> sockets) throws IOException {
+            stopped = true;
+            for (Socket socket : sockets) {
+                socket.close();
+            }
+            executor.close();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package jmh;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Loopback echo server for {@link EchoLoadTest}. A request is a 4-byte big-endian length and that many bytes, the
+ * response is the same frame sent back. Four ways to serve it:
+ * <ul>
+ * <li>{@code VIRTUAL}: a virtual thread per connection doing blocking reads and writes</li>
+ * <li>{@code VIRTUAL_PINNED}: the same, but each request is handled inside {@code synchronized}, so a virtual
+ * thread waiting for its next request stays pinned to its carrier and the other connections wait for a free one</li>
+ * <li>{@code PLATFORM}: a fixed pool of {@value #PLATFORM_POOL_SIZE} platform threads, one connection each, the rest
+ * queue until a connection closes</li>
+ * <li>{@code SELECTOR}: one thread and a {@link Selector} over non-blocking channels</li>
+ * </ul>
+ * Frame buffers are allocated per request, an idle connection holds nothing but its socket and, for the blocking
+ * models, its thread.
+ */
+// java jmh.EchoServer MODEL maxPayload, prints "listening <port>" and runs until stdin is closed
+public final class EchoServer implements AutoCloseable {
+
+    public enum Model {
+        VIRTUAL, VIRTUAL_PINNED, PLATFORM, SELECTOR
+    }
+
+    static final int PLATFORM_POOL_SIZE = 256;
+    private static final int BACKLOG = 65535;
+    private static final int FRAME_HEADER = Integer.BYTES;
+
+    private final Model model;
+    private final int maxPayload;
+    private final Thread loop;
+    private final ExecutorService handlers;
+    private final ServerSocket serverSocket;
+    private final ServerSocketChannel serverChannel;
+    private final Selector selector;
+    private volatile boolean closed;
+
+    public EchoServer(Model model, int maxPayload) throws IOException {
+        if (maxPayload < 0) {
+            throw new IllegalArgumentException("Payload size must not be negative");
+        }
+        this.model = model;
+        this.maxPayload = maxPayload;
+        InetSocketAddress loopback = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+        if (model == Model.SELECTOR) {
+            serverSocket = null;
+            handlers = null;
+            selector = Selector.open();
+            serverChannel = ServerSocketChannel.open().bind(loopback, BACKLOG);
+            serverChannel.configureBlocking(false);
+            serverChannel.register(selector, SelectionKey.OP_ACCEPT);
+            loop = new Thread(this::select, "echo-selector");
+        } else {
+            serverChannel = null;
+            selector = null;
+            serverSocket = new ServerSocket();
+            serverSocket.bind(loopback, BACKLOG);
+            handlers = model == Model.PLATFORM
+                    ? Executors.newFixedThreadPool(PLATFORM_POOL_SIZE)
+                    : Executors.newVirtualThreadPerTaskExecutor();
+            loop = new Thread(this::accept, "echo-acceptor");
+        }
+        loop.start();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: java jmh.EchoServer MODEL maxPayload");
+        }
+        try (EchoServer server = new EchoServer(Model.valueOf(args[0]), Integer.parseInt(args[1]))) {
+            System.out.println("listening " + server.port());
+            System.out.flush();
+            while (System.in.read() >= 0) {
+                // the load generator closes our stdin when it is done
+            }
+        }
+    }
+
+    public int port() {
+        return model == Model.SELECTOR ? serverChannel.socket().getLocalPort() : serverSocket.getLocalPort();
+    }
+
+    private void accept() {
+        while (!closed) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                handlers.execute(model == Model.VIRTUAL_PINNED ? () -> servePinned(socket) : () -> serve(socket));
+            } catch (IOException e) {
+                if (!closed) {
+                    throw new IllegalStateException("Accept failed", e);
+                }
+            }
+        }
+    }
+
+    private void serve(Socket socket) {
+        try (socket) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            byte[] header = new byte[FRAME_HEADER];
+            while (echo(in, out, header)) {
+                // until the client hangs up
+            }
+        } catch (IOException e) {
+            // reset by the client at the end of a run
+        }
+    }
+
+    private void servePinned(Socket socket) {
+        Object lock = new Object();
+        try (socket) {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            OutputStream out = socket.getOutputStream();
+            byte[] header = new byte[FRAME_HEADER];
+            boolean open = true;
+            while (open) {
+                // blocking in here parks while holding a monitor, which pins the virtual thread to its carrier
+                synchronized (lock) {
+                    open = echo(in, out, header);
+                }
+            }
+        } catch (IOException e) {
+            // reset by the client at the end of a run
+        }
+    }
+
+    // false once the client has closed its side
+    private boolean echo(DataInputStream in, OutputStream out, byte[] header) throws IOException {
+        try {
+            in.readFully(header);
+        } catch (EOFException e) {
+            return false;
+        }
+        int length = Bytes.toInt(header);
+        if (length < 0 || length > maxPayload) {
+            throw new IOException("Frame of " + length + " bytes, at most " + maxPayload + " expected");
+        }
+        byte[] frame = new byte[FRAME_HEADER + length];
+        System.arraycopy(header, 0, frame, 0, FRAME_HEADER);
+        in.readFully(frame, FRAME_HEADER, length);
+        out.write(frame, 0, FRAME_HEADER + length);
+        return true;
+    }
+
+    private void select() {
+        try {
+            while (!closed) {
+                selector.select();
+                Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    SelectionKey key = keys.next();
+                    keys.remove();
+                    try {
+                        if (!key.isValid()) {
+                            continue;
+                        }
+                        if (key.isAcceptable()) {
+                            acceptAll();
+                        } else if (key.isReadable()) {
+                            read(key);
+                        } else if (key.isWritable()) {
+                            write(key);
+                        }
+                    } catch (IOException e) {
+                        // one connection failing is that connection's problem
+                        key.channel().close();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            if (!closed) {
+                throw new IllegalStateException("Selector failed", e);
+            }
+        }
+    }
+
+    private void acceptAll() throws IOException {
+        SocketChannel channel;
+        while ((channel = serverChannel.accept()) != null) {
+            channel.configureBlocking(false);
+            channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+            channel.register(selector, SelectionKey.OP_READ, new Connection());
+        }
+    }
+
+    private void read(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        if (connection.frame == null) {
+            if (channel.read(connection.header) < 0) {
+                channel.close();
+                return;
+            }
+            if (connection.header.hasRemaining()) {
+                return;
+            }
+            int length = connection.header.getInt(0);
+            if (length < 0 || length > maxPayload) {
+                throw new IOException("Frame of " + length + " bytes, at most " + maxPayload + " expected");
+            }
+            connection.frame = ByteBuffer.allocate(FRAME_HEADER + length).put(connection.header.flip());
+        }
+        if (channel.read(connection.frame) < 0) {
+            channel.close();
+            return;
+        }
+        if (connection.frame.hasRemaining()) {
+            return;
+        }
+        // clients wait for the response before sending again, so there is never more than one frame in flight
+        connection.frame.flip();
+        write(key);
+    }
+
+    private void write(SelectionKey key) throws IOException {
+        SocketChannel channel = (SocketChannel) key.channel();
+        Connection connection = (Connection) key.attachment();
+        channel.write(connection.frame);
+        if (connection.frame.hasRemaining()) {
+            key.interestOps(SelectionKey.OP_WRITE);
+        } else {
+            connection.frame = null;
+            connection.header.clear();
+            key.interestOps(SelectionKey.OP_READ);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (model == Model.SELECTOR) {
+            selector.wakeup();
+            serverChannel.close();
+            try {
+                loop.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            for (SelectionKey key : selector.keys()) {
+                key.channel().close();
+            }
+            selector.close();
+        } else {
+            serverSocket.close();
+            handlers.shutdownNow();
+        }
+    }
+
+    private static final class Connection {
+        private final ByteBuffer header = ByteBuffer.allocate(FRAME_HEADER);
+        // only while a request is being read or its echo written
+        private ByteBuffer frame;
+    }
+}
@@ -0,0 +1,120 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jol.info.ClassLayout;
+import org.openjdk.jol.info.FieldLayout;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Two threads each incrementing their own volatile field, once with the fields next to each other and once with
+ * padding between them. Nothing is shared in the program, only in the cache: unpadded, both fields sit on one line
+ * that keeps bouncing between the two cores. {@link #main} prints the JOL layouts first, and refuses to run if the
+ * padding here or in {@link StripedCounter} did not end up where it was meant to.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class FalseSharing {
+
+    // two lines, adjacent-line prefetch moves cache lines in pairs
+    private static final int ISOLATION_BYTES = 128;
+
+    public static void main(String[] args) throws RunnerException {
+        ClassLayout unpadded = ClassLayout.parseClass(Unpadded.class);
+        ClassLayout padded = ClassLayout.parseClass(Padded.class);
+        ClassLayout cell = ClassLayout.parseClass(StripedCounter.Cell.class);
+        System.out.println(unpadded.toPrintable());
+        System.out.println(padded.toPrintable());
+        System.out.println(cell.toPrintable());
+        System.out.printf("unpadded a..b %d bytes, padded a..b %d bytes%n",
+                distance(unpadded, "a", "b"), distance(padded, "a", "b"));
+        if (distance(padded, "a", "b") < ISOLATION_BYTES) {
+            throw new IllegalStateException("Padded fields are less than " + ISOLATION_BYTES + " bytes apart");
+        }
+        // cells sit back to back in the heap, so one cell's value is as far from the next one's as a cell is long
+        if (cell.instanceSize() < ISOLATION_BYTES || offset(cell, "value") < ISOLATION_BYTES / 2) {
+            throw new IllegalStateException("StripedCounter cells are not padded to " + ISOLATION_BYTES + " bytes");
+        }
+        new Runner(new OptionsBuilder()
+                .include(FalseSharing.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static long offset(ClassLayout layout, String field) {
+        for (FieldLayout candidate : layout.fields()) {
+            if (candidate.name().equals(field)) {
+                return candidate.offset();
+            }
+        }
+        throw new IllegalArgumentException("No field " + field);
+    }
+
+    private static long distance(ClassLayout layout, String from, String to) {
+        return Math.abs(offset(layout, to) - offset(layout, from));
+    }
+
+    @State(Scope.Group)
+    public static class Unpadded {
+        volatile long a;
+        volatile long b;
+    }
+
+    // padding by inheritance, the JVM keeps superclass fields first whatever it does within a class
+    @SuppressWarnings("unused")
+    static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    static class FieldA extends LeftPadding {
+        volatile long a;
+    }
+
+    @SuppressWarnings("unused")
+    static class MiddlePadding extends FieldA {
+        long p11, p12, p13, p14, p15, p16, p17, p18, p19, p20, p21, p22, p23, p24, p25;
+    }
+
+    static class FieldB extends MiddlePadding {
+        volatile long b;
+    }
+
+    @SuppressWarnings("unused")
+    @State(Scope.Group)
+    public static class Padded extends FieldB {
+        long p31, p32, p33, p34, p35, p36, p37, p38, p39, p40, p41, p42, p43, p44, p45;
+    }
+
+    @Benchmark
+    @Group("unpadded")
+    @GroupThreads(1)
+    public long unpaddedA(Unpadded state) {
+        return state.a++;
+    }
+
+    @Benchmark
+    @Group("unpadded")
+    @GroupThreads(1)
+    public long unpaddedB(Unpadded state) {
+        return state.b++;
+    }
+
+    @Benchmark
+    @Group("padded")
+    @GroupThreads(1)
+    public long paddedA(Padded state) {
+        return state.a++;
+    }
+
+    @Benchmark
+    @Group("padded")
+    @GroupThreads(1)
+    public long paddedB(Padded state) {
+        return state.b++;
+    }
+}
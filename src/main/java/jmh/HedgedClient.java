@@ -0,0 +1,217 @@
+package jmh;
+
+import gc.LatencyRecorder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calls redundant replicas one at a time, fastest first by EWMA latency, and only sends a speculative
+ * duplicate to the next replica once the current attempts have been outstanding for the hedge delay.
+ * The first success wins and {@link StructuredTaskScope.ShutdownOnSuccess} interrupts the losers.
+ */
+public class HedgedClient<T> {
+
+    private static final double EWMA_ALPHA = 0.2;
+    private static final int LATENCY_SAMPLES = 1024;
+    private static final int RECOMPUTE_EVERY = 64;
+
+    private final List<Replica<T>> replicas;
+    private final long fixedHedgeNanos;
+    private final double hedgePercentile;
+    private final AtomicLongArray recentLatencies = new AtomicLongArray(LATENCY_SAMPLES);
+    private final AtomicInteger recorded = new AtomicInteger();
+    private volatile long percentileHedgeNanos;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder requests = new LongAdder();
+    // every successful replica call, the hedge percentile only looks at the most recent ones
+    private final LatencyRecorder latencies = new LatencyRecorder();
+    // how long interrupted losers had been running, lower bounds kept apart from the real round trips
+    private final LatencyRecorder cancelled = new LatencyRecorder();
+
+    private HedgedClient(List<Callable<T>> replicas, long fixedHedgeNanos, double hedgePercentile, long initialHedgeNanos) {
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        List<Replica<T>> wrapped = new ArrayList<>(replicas.size());
+        for (Callable<T> replica : replicas) {
+            wrapped.add(new Replica<>(replica));
+        }
+        this.replicas = List.copyOf(wrapped);
+        this.fixedHedgeNanos = fixedHedgeNanos;
+        this.hedgePercentile = hedgePercentile;
+        this.percentileHedgeNanos = initialHedgeNanos;
+    }
+
+    public static <T> HedgedClient<T> withFixedDelay(List<Callable<T>> replicas, Duration hedgeDelay) {
+        return new HedgedClient<>(replicas, hedgeDelay.toNanos(), 0, 0);
+    }
+
+    /**
+     * Hedges after the given percentile of recently observed latencies, {@code initialDelay} until enough are seen.
+     */
+    public static <T> HedgedClient<T> withPercentileDelay(List<Callable<T>> replicas, double percentile,
+                                                          Duration initialDelay) {
+        if (percentile <= 0 || percentile >= 100) {
+            throw new IllegalArgumentException("Percentile must be within (0, 100)");
+        }
+        return new HedgedClient<>(replicas, -1, percentile, initialDelay.toNanos());
+    }
+
+    public T call(Duration timeout) throws InterruptedException, ExecutionException, TimeoutException {
+        calls.increment();
+        Instant deadline = Instant.now().plus(timeout);
+        List<Replica<T>> ordered = byLatency();
+        long hedgeNanos = hedgeDelayNanos();
+        try (var scope = new StructuredTaskScope.ShutdownOnSuccess<T>()) {
+            int next = 0;
+            while (true) {
+                fork(scope, ordered.get(next++));
+                if (next == ordered.size()) {
+                    scope.joinUntil(deadline);
+                    return scope.result();
+                }
+                Instant hedgeAt = Instant.now().plusNanos(hedgeNanos);
+                try {
+                    scope.joinUntil(hedgeAt.isBefore(deadline) ? hedgeAt : deadline);
+                } catch (TimeoutException e) {
+                    if (!hedgeAt.isBefore(deadline)) {
+                        throw e;
+                    }
+                    continue;
+                }
+                if (scope.isShutdown()) {
+                    return scope.result();
+                }
+                // everything forked so far failed, move on to the next replica without waiting
+            }
+        }
+    }
+
+    private void fork(StructuredTaskScope<T> scope, Replica<T> replica) {
+        requests.increment();
+        scope.fork(() -> {
+            long start = System.nanoTime();
+            try {
+                T result = replica.callable.call();
+                record(replica, System.nanoTime() - start);
+                return result;
+            } catch (Exception e) {
+                if (scope.isShutdown()) {
+                    recordCancelled(replica, System.nanoTime() - start);
+                }
+                throw e;
+            }
+        });
+    }
+
+    // lost the race, so it would have taken at least this long: as a sample that would drag the hedge percentile
+    // and the EWMA down, but it may still raise the EWMA, or a replica that always loses would never look slow
+    private void recordCancelled(Replica<T> replica, long nanos) {
+        replica.raise(nanos);
+        cancelled.record(nanos);
+    }
+
+    private void record(Replica<T> replica, long nanos) {
+        replica.update(nanos);
+        latencies.record(nanos);
+        int n = recorded.getAndIncrement();
+        recentLatencies.set(n & (LATENCY_SAMPLES - 1), nanos);
+        if (fixedHedgeNanos < 0 && n >= LATENCY_SAMPLES / 8 && n % RECOMPUTE_EVERY == 0) {
+            int size = Math.min(n + 1, LATENCY_SAMPLES);
+            long[] samples = new long[size];
+            for (int i = 0; i < size; i++) {
+                samples[i] = recentLatencies.get(i);
+            }
+            Arrays.sort(samples);
+            percentileHedgeNanos = samples[Math.min((int) Math.ceil(hedgePercentile / 100.0 * size) - 1, size - 1)];
+        }
+    }
+
+    private List<Replica<T>> byLatency() {
+        List<Replica<T>> ordered = new ArrayList<>(replicas);
+        ordered.sort(Comparator.comparingLong(Replica::ewmaNanos));
+        return ordered;
+    }
+
+    public long hedgeDelayNanos() {
+        return fixedHedgeNanos >= 0 ? fixedHedgeNanos : percentileHedgeNanos;
+    }
+
+    public long calls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return requests sent to replicas, including speculative duplicates
+     */
+    public long requests() {
+        return requests.sum();
+    }
+
+    /**
+     * @return latency of every successful replica call, losers that were interrupted are not in it
+     */
+    public LatencyRecorder latencies() {
+        return latencies;
+    }
+
+    /**
+     * @return how long each interrupted loser had been running, a lower bound of what it would have taken
+     */
+    public LatencyRecorder cancelledLatencies() {
+        return cancelled;
+    }
+
+    public long ewmaNanos(int replica) {
+        return replicas.get(replica).ewmaNanos();
+    }
+
+    private static final class Replica<T> {
+        private final Callable<T> callable;
+        // 0 until the first success, so untried replicas sort first and get sampled
+        private final AtomicLong ewmaNanos = new AtomicLong();
+
+        private Replica(Callable<T> callable) {
+            this.callable = callable;
+        }
+
+        private void update(long nanos) {
+            long current;
+            long updated;
+            do {
+                current = ewmaNanos.get();
+                updated = current == 0 ? nanos : (long) (current + EWMA_ALPHA * (nanos - current));
+            } while (!ewmaNanos.compareAndSet(current, updated));
+        }
+
+        private void raise(long nanos) {
+            long current;
+            long updated;
+            do {
+                current = ewmaNanos.get();
+                if (nanos <= current) {
+                    return;
+                }
+                updated = current == 0 ? nanos : (long) (current + EWMA_ALPHA * (nanos - current));
+            } while (!ewmaNanos.compareAndSet(current, updated));
+        }
+
+        private long ewmaNanos() {
+            return ewmaNanos.get();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package jmh;
+
+import gc.LatencyHistogram;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.StructuredTaskScope;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Three replicas with different latency profiles: fire-to-all (what {@link ShutdownSuccessVsShutdownOnFailure}
+ * does) against hedging after the observed p95 and against never hedging. Compare the p99 rows, the extra requests per call are printed
+ * at the end of each trial.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+public class HedgedReplicas {
+
+    private static final Duration DEADLINE = Duration.ofMillis(500);
+
+    // median 5ms with a heavy tail, uniform 5..15ms, and a slow replica with median 20ms
+    private final List<Callable<String>> replicas = List.of(
+            () -> respond("A", SimulatedLatency.LOG_NORMAL.nextNanos() / 2),
+            () -> respond("B", SimulatedLatency.UNIFORM.nextNanos()),
+            () -> respond("C", SimulatedLatency.LOG_NORMAL.nextNanos() * 2));
+
+    private HedgedClient<String> fastestOnly;
+    private HedgedClient<String> hedgedP95;
+    private HedgedClient<String> hedgedP50;
+    private long fireToAllCalls;
+    private long fireToAllRequests;
+
+    private static String respond(String replica, long nanos) {
+        SimulatedLatency.sleepNanos(nanos);
+        return replica;
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        fastestOnly = HedgedClient.withFixedDelay(replicas, DEADLINE);
+        hedgedP95 = HedgedClient.withPercentileDelay(replicas, 95, Duration.ofMillis(20));
+        hedgedP50 = HedgedClient.withPercentileDelay(replicas, 50, Duration.ofMillis(10));
+        fireToAllCalls = 0;
+        fireToAllRequests = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        if (fireToAllCalls > 0) {
+            System.out.printf("%nfire-to-all: %.2f requests per call%n", (double) fireToAllRequests / fireToAllCalls);
+        }
+        print("fastest only", fastestOnly);
+        print("hedged p95", hedgedP95);
+        print("hedged p50", hedgedP50);
+    }
+
+    private static void print(String name, HedgedClient<?> client) {
+        if (client.calls() > 0) {
+            LatencyHistogram replicaCalls = client.latencies().totalSnapshot();
+            LatencyHistogram cancelled = client.cancelledLatencies().totalSnapshot();
+            System.out.printf("%n%s: %.2f requests per call, hedge delay %.1f ms, replica calls %s%n", name,
+                    (double) client.requests() / client.calls(), client.hedgeDelayNanos() / 1e6,
+                    replicaCalls.format(TimeUnit.MILLISECONDS));
+            if (cancelled.count() > 0) {
+                System.out.printf("%s: cancelled losers, time run before the interrupt %s%n", name,
+                        cancelled.format(TimeUnit.MILLISECONDS));
+            }
+        }
+    }
+
+    @Benchmark
+    public String fireToAll() throws InterruptedException, ExecutionException, TimeoutException {
+        fireToAllCalls++;
+        try (var scope = new StructuredTaskScope.ShutdownOnSuccess<String>()) {
+            for (Callable<String> replica : replicas) {
+                scope.fork(replica);
+                fireToAllRequests++;
+            }
+            scope.joinUntil(Instant.now().plus(DEADLINE));
+            return scope.result();
+        }
+    }
+
+    // never hedges, the baseline for what hedging buys at the tail
+    @Benchmark
+    public String fastestOnly() throws InterruptedException, ExecutionException, TimeoutException {
+        return fastestOnly.call(DEADLINE);
+    }
+
+    @Benchmark
+    public String hedgedAtP95() throws InterruptedException, ExecutionException, TimeoutException {
+        return hedgedP95.call(DEADLINE);
+    }
+
+    @Benchmark
+    public String hedgedAtP50() throws InterruptedException, ExecutionException, TimeoutException {
+        return hedgedP50.call(DEADLINE);
+    }
+}
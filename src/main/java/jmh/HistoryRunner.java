@@ -0,0 +1,177 @@
+package jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Runs JMH like {@code org.openjdk.jmh.Main} but keeps every run, JSON results plus JVM/CPU metadata,
+ * in a history directory and compares it against a baseline run:
+ * <pre>
+ * java -cp target/benchmarkers.jar jmh.HistoryRunner [--history=bench-history] [--baseline=latest|RUN_ID]
+ *      [--min-change=0.05] [--set-baseline] [--compare-only=RUN_ID] [JMH options...]
+ * </pre>
+ * The baseline defaults to the run marked with {@code --set-baseline}, or the previous run when none is.
+ * Exits with 2 when any benchmark got significantly slower, so JDK and library upgrades can be gated on it.
+ */
+public class HistoryRunner {
+
+    static final int EXIT_REGRESSION = 2;
+
+    private static final String RESULTS = "results.json";
+    private static final String METADATA = "metadata.json";
+    private static final String REPORT = "report.txt";
+    private static final String BASELINE_MARKER = "BASELINE";
+    private static final DateTimeFormatter RUN_ID = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private static final ObjectMapper mapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final Path history;
+
+    HistoryRunner(Path history) {
+        this.history = history;
+    }
+
+    public static void main(String[] args) throws IOException, RunnerException, CommandLineOptionException {
+        Path history = Path.of("bench-history");
+        String baseline = null;
+        String compareOnly = null;
+        double minChange = 0.05;
+        boolean setBaseline = false;
+        List<String> jmhArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--history=")) {
+                history = Path.of(value(arg));
+            } else if (arg.startsWith("--baseline=")) {
+                baseline = value(arg);
+            } else if (arg.startsWith("--min-change=")) {
+                minChange = Double.parseDouble(value(arg));
+            } else if (arg.startsWith("--compare-only=")) {
+                compareOnly = value(arg);
+            } else if (arg.equals("--set-baseline")) {
+                setBaseline = true;
+            } else {
+                jmhArgs.add(arg);
+            }
+        }
+
+        HistoryRunner runner = new HistoryRunner(history);
+        String run = compareOnly != null ? compareOnly : runner.run(jmhArgs.toArray(new String[0]));
+        Optional<String> base = runner.resolveBaseline(baseline, run);
+        if (setBaseline) {
+            Files.writeString(history.resolve(BASELINE_MARKER), run);
+        }
+        if (base.isEmpty()) {
+            System.out.println("No baseline to compare run " + run + " against");
+            return;
+        }
+        RegressionReport report = RegressionReport.compare(runner.results(base.get()), runner.results(run), minChange);
+        String text = "Run " + run + " against baseline " + base.get() + System.lineSeparator() + report.format();
+        Files.writeString(history.resolve(run).resolve(REPORT), text);
+        System.out.println(text);
+        if (report.hasRegressions()) {
+            System.exit(EXIT_REGRESSION);
+        }
+    }
+
+    private static String value(String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    String run(String[] jmhArgs) throws IOException, RunnerException, CommandLineOptionException {
+        String run = LocalDateTime.now().format(RUN_ID);
+        Path dir = Files.createDirectories(history.resolve(run));
+        CommandLineOptions commandLine = new CommandLineOptions(jmhArgs);
+        Files.writeString(dir.resolve(METADATA), mapper.writeValueAsString(metadata(jmhArgs)));
+        new Runner(new OptionsBuilder()
+                .parent(commandLine)
+                .resultFormat(ResultFormatType.JSON)
+                .result(dir.resolve(RESULTS).toString())
+                .build()).run();
+        return run;
+    }
+
+    JsonNode results(String run) {
+        Path file = history.resolve(run).resolve(RESULTS);
+        try {
+            return mapper.readTree(file.toFile());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read results of run " + run, e);
+        }
+    }
+
+    Optional<String> resolveBaseline(String requested, String current) throws IOException {
+        if (requested != null && !requested.equals("latest")) {
+            return Optional.of(requested);
+        }
+        Path marker = history.resolve(BASELINE_MARKER);
+        if (requested == null && Files.exists(marker)) {
+            String marked = Files.readString(marker).trim();
+            if (!marked.equals(current)) {
+                return Optional.of(marked);
+            }
+        }
+        // run ids sort chronologically
+        try (Stream<Path> runs = Files.list(history)) {
+            return runs.filter(p -> Files.exists(p.resolve(RESULTS)))
+                    .map(p -> p.getFileName().toString())
+                    .filter(id -> id.compareTo(current) < 0)
+                    .max(String::compareTo);
+        }
+    }
+
+    static Map<String, Object> metadata(String[] jmhArgs) {
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("timestamp", LocalDateTime.now().toString());
+        metadata.put("jmhArgs", Arrays.asList(jmhArgs));
+        metadata.put("java.version", System.getProperty("java.version"));
+        metadata.put("java.vendor", System.getProperty("java.vendor"));
+        metadata.put("java.vm.name", System.getProperty("java.vm.name"));
+        metadata.put("java.vm.version", System.getProperty("java.vm.version"));
+        metadata.put("jvmFlags", ManagementFactory.getRuntimeMXBean().getInputArguments());
+        metadata.put("os.name", System.getProperty("os.name"));
+        metadata.put("os.version", System.getProperty("os.version"));
+        metadata.put("os.arch", System.getProperty("os.arch"));
+        metadata.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        metadata.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        metadata.put("cpuModel", cpuModel());
+        return metadata;
+    }
+
+    private static String cpuModel() {
+        Path cpuInfo = Path.of("/proc/cpuinfo");
+        if (!Files.isReadable(cpuInfo)) {
+            return System.getenv().getOrDefault("PROCESSOR_IDENTIFIER", "unknown");
+        }
+        try (Stream<String> lines = Files.lines(cpuInfo, StandardCharsets.UTF_8)) {
+            return lines.filter(line -> line.startsWith("model name"))
+                    .map(line -> line.substring(line.indexOf(':') + 1).trim())
+                    .findFirst()
+                    .orElse("unknown");
+        } catch (IOException e) {
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package jmh;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * Growable {@code int[]} without the boxing of {@code List<Integer>}. Reductions go through the
+ * {@link ReductionKernels} given at construction, {@link ReductionKernels#defaults()} otherwise.
+ */
+public class IntList {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private final ReductionKernels kernels;
+    private int[] values;
+    private int size;
+
+    public IntList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public IntList(int capacity) {
+        this(capacity, ReductionKernels.defaults());
+    }
+
+    public IntList(int capacity, ReductionKernels kernels) {
+        this.values = new int[capacity];
+        this.kernels = kernels;
+    }
+
+    public static IntList of(int[] values, ReductionKernels kernels) {
+        IntList list = new IntList(values.length, kernels);
+        System.arraycopy(values, 0, list.values, 0, values.length);
+        list.size = values.length;
+        return list;
+    }
+
+    public void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length + (values.length >> 1), DEFAULT_CAPACITY));
+        }
+        values[size++] = value;
+    }
+
+    public int get(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    public void set(int index, int value) {
+        checkIndex(index);
+        values[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Wraps around on overflow, same as {@code IntStream.sum()}.
+     */
+    public int sum() {
+        return kernels.sum(values, size);
+    }
+
+    public int min() {
+        checkNotEmpty();
+        return kernels.min(values, size);
+    }
+
+    public int max() {
+        checkNotEmpty();
+        return kernels.max(values, size);
+    }
+
+    public int countGreaterThan(int threshold) {
+        return kernels.countGreaterThan(values, size, threshold);
+    }
+
+    public int countIf(IntPredicate predicate) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(values[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty list");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link EqualIgnoreCaseVsToLowerCase} scaled up to a dictionary: each operation resolves one incoming token,
+ * three out of four are keywords in random case and the rest are misses.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Measurement(iterations = 10, time = 1)
+public class KeywordDictionaryBenchmark {
+
+    private static final List<String> HEADERS = List.of(
+            "Accept", "Accept-Charset", "Accept-Encoding", "Accept-Language", "Accept-Ranges", "Age", "Allow",
+            "Authorization", "Cache-Control", "Connection", "Content-Disposition", "Content-Encoding",
+            "Content-Language", "Content-Length", "Content-Location", "Content-Range", "Content-Type", "Cookie",
+            "Date", "ETag", "Expect", "Expires", "Forwarded", "From", "Host", "If-Match", "If-Modified-Since",
+            "If-None-Match", "If-Range", "If-Unmodified-Since", "Last-Modified", "Link", "Location", "Max-Forwards",
+            "Origin", "Pragma", "Proxy-Authenticate", "Proxy-Authorization", "Range", "Referer", "Retry-After",
+            "Server", "Set-Cookie", "TE", "Trailer", "Transfer-Encoding", "Upgrade", "User-Agent", "Vary", "Via",
+            "WWW-Authenticate", "X-Forwarded-For", "X-Forwarded-Host", "X-Forwarded-Proto", "X-Request-Id",
+            "GET", "HEAD", "POST", "PUT", "DELETE", "CONNECT", "OPTIONS", "TRACE", "PATCH");
+    private static final int TOKENS = 1024;
+
+    @Param({"64", "256", "1024"})
+    private int keywordCount;
+
+    private Map<String, Integer> lowerCaseMap;
+    private TreeMap<String, Integer> caseInsensitiveTree;
+    private CaseInsensitiveDictionary dictionary;
+    private String[] tokens;
+    private byte[][] tokenBytes;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<String> keywords = new ArrayList<>(HEADERS.subList(0, Math.min(keywordCount, HEADERS.size())));
+        for (int i = keywords.size(); i < keywordCount; i++) {
+            keywords.add("X-Custom-Header-" + i);
+        }
+        lowerCaseMap = new HashMap<>();
+        caseInsensitiveTree = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (int i = 0; i < keywords.size(); i++) {
+            lowerCaseMap.put(keywords.get(i).toLowerCase(Locale.ROOT), i);
+            caseInsensitiveTree.put(keywords.get(i), i);
+        }
+        dictionary = CaseInsensitiveDictionary.of(keywords);
+
+        Random random = new Random(0);
+        tokens = new String[TOKENS];
+        tokenBytes = new byte[TOKENS][];
+        for (int i = 0; i < TOKENS; i++) {
+            String token = random.nextInt(4) == 0
+                    ? "X-Unknown-" + random.nextInt(10_000)
+                    : randomCase(keywords.get(random.nextInt(keywords.size())), random);
+            tokens[i] = token;
+            tokenBytes[i] = token.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private static String randomCase(String keyword, Random random) {
+        char[] chars = keyword.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = random.nextBoolean() ? Character.toUpperCase(chars[i]) : Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private int nextIndex() {
+        return next++ & (TOKENS - 1);
+    }
+
+    @Benchmark
+    public Integer hashMapToLowerCase() {
+        return lowerCaseMap.get(tokens[nextIndex()].toLowerCase(Locale.ROOT));
+    }
+
+    @Benchmark
+    public Integer treeMapCaseInsensitiveOrder() {
+        return caseInsensitiveTree.get(tokens[nextIndex()]);
+    }
+
+    @Benchmark
+    public int dictionaryCharSequence() {
+        return dictionary.idOf(tokens[nextIndex()]);
+    }
+
+    // bytes off the wire: the map needs a String first, the dictionary reads the slice as is
+    @Benchmark
+    public Integer hashMapFromBytes() {
+        return lowerCaseMap.get(new String(tokenBytes[nextIndex()], StandardCharsets.UTF_8).toLowerCase(Locale.ROOT));
+    }
+
+    @Benchmark
+    public int dictionaryBytes() {
+        return dictionary.idOf(tokenBytes[nextIndex()]);
+    }
+}
@@ -0,0 +1,135 @@
+package jmh;
+
+import gc.LatencyHistogram;
+import gc.LatencyRecorder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cost of recording one latency while a reader takes an interval snapshot every 10ms: a {@link LatencyRecorder}
+ * writer per thread, its shared stripes, the sample ring {@link HedgedClient} keeps, and one histogram behind a
+ * lock. {@code baseline} only produces the value. {@link #main} runs it with 1, 8 and 32 writer threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class LatencyRecorderBenchmark {
+
+    private static final int SAMPLES = 4096;
+    private static final int RING_SIZE = 1024;
+
+    private LatencyRecorder recorder;
+    private AtomicLongArray ring;
+    private AtomicInteger ringIndex;
+    private LatencyHistogram locked;
+    private Thread reader;
+    private volatile boolean reading;
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 8, 32}) {
+            new Runner(new OptionsBuilder()
+                    .include(LatencyRecorderBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+        final long[] samples = new long[SAMPLES];
+        LatencyRecorder.Writer writer;
+        int next;
+
+        // log-normal around 10us, so values spread over a few hundred buckets like real latencies do
+        @Setup
+        public void setup(LatencyRecorderBenchmark benchmark) {
+            SplittableRandom random = new SplittableRandom(Thread.currentThread().threadId());
+            for (int i = 0; i < SAMPLES; i++) {
+                samples[i] = (long) (10_000 * Math.exp(gaussian(random)));
+            }
+            writer = benchmark.recorder.writer();
+        }
+
+        long nextValue() {
+            return samples[next++ & (SAMPLES - 1)];
+        }
+
+        private static double gaussian(SplittableRandom random) {
+            return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        recorder = new LatencyRecorder();
+        ring = new AtomicLongArray(RING_SIZE);
+        ringIndex = new AtomicInteger();
+        locked = new LatencyHistogram();
+        reading = true;
+        reader = new Thread(() -> {
+            while (reading) {
+                recorder.intervalSnapshot();
+                synchronized (locked) {
+                    locked.count();
+                }
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "snapshot-reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        reading = false;
+        reader.join();
+        LatencyHistogram total = recorder.totalSnapshot();
+        if (total.count() == 0) {
+            return;
+        }
+        System.out.printf("%nrecorded %s, serialized in %d bytes%n", total.format(TimeUnit.MICROSECONDS),
+                total.toBytes().length);
+    }
+
+    @Benchmark
+    public long baseline(Writer writer) {
+        return writer.nextValue();
+    }
+
+    @Benchmark
+    public void ownWriter(Writer writer) {
+        writer.writer.record(writer.nextValue());
+    }
+
+    @Benchmark
+    public void sharedStripes(Writer writer) {
+        recorder.record(writer.nextValue());
+    }
+
+    @Benchmark
+    public void sampleRing(Writer writer) {
+        ring.set(ringIndex.getAndIncrement() & (RING_SIZE - 1), writer.nextValue());
+    }
+
+    @Benchmark
+    public void lockedHistogram(Writer writer) {
+        long value = writer.nextValue();
+        synchronized (locked) {
+            locked.record(value);
+        }
+    }
+}
@@ -13,39 +13,72 @@ import java.util.concurrent.TimeUnit;
 @Measurement(iterations = 25, time = 1)
 public class ListVsMapForPriority {
 
-    final List<String> types = Arrays
+    private static final List<String> DEFAULT_TYPES = Arrays
             .asList("Residence", "Correspondance", "Office", "Next Door", "Some", "Another");
-    final Map<String, Integer> priorityMap = new HashMap<String, Integer>() {
-        {
-            put("Residence", 1);
-            put("Correspondance", 2);
-            put("Office", 3);
-            put("Next Door", 4);
-            put("Some", 5);
-            put("Another", 6);
+
+    @Param({"4", "100", "10000", "1000000"})
+    private int addressCount;
+
+    @Param({"6", "100", "1000", "10000"})
+    private int typeCount;
+
+    List<String> types;
+    Map<String, Integer> priorityMap;
+    PriorityResolver resolver;
+    List<Address> addresses;
+
+    @Setup
+    public void setup() {
+        types = new ArrayList<>(DEFAULT_TYPES.subList(0, Math.min(typeCount, DEFAULT_TYPES.size())));
+        for (int i = types.size(); i < typeCount; i++) {
+            types.add("Type-" + i);
+        }
+        priorityMap = new HashMap<>();
+        for (int i = 0; i < types.size(); i++) {
+            priorityMap.put(types.get(i), i + 1);
+        }
+        resolver = PriorityResolver.compile(priorityMap);
+
+        if (addressCount == 4) {
+            addresses = Arrays.asList(
+                    new Address(1, "Office", "AAAAA"),
+                    new Address(2, "Correspondence", "BBBBB"),
+                    new Address(3, "Residence", "CCCC"),
+                    new Address(4, "Next Door", "DDDD"));
+            return;
+        }
+        // one in ten addresses carries a type that isn't in the table, and strings are fresh copies
+        // so that equals does the real work instead of hitting the identity check
+        Random random = new Random(0);
+        addresses = new ArrayList<>(addressCount);
+        for (int i = 0; i < addressCount; i++) {
+            String type = random.nextInt(10) == 0
+                    ? "Unknown-" + random.nextInt(100)
+                    : new String(types.get(random.nextInt(types.size())));
+            addresses.add(new Address(i, type, "K" + i));
         }
-    };
-    List<Address> addresses = Arrays.asList(
-            new Address(1, "Office", "AAAAA"),
-            new Address(2, "Correspondence", "BBBBB"),
-            new Address(3, "Residence", "CCCC"),
-            new Address(4, "Next Door", "DDDD"));
+    }
 
     @Benchmark
-    public void listPerform() {
-        Optional<Address> address = addresses.stream()
+    public Optional<Address> listPerform() {
+        return addresses.stream()
                 .filter(a -> types.contains(a.getType()))
                 .min(Comparator.comparingInt(o -> types.indexOf(o.getType())));
     }
 
     @Benchmark
-    public void mapPerform() {
-        Optional<Address> address = addresses.stream()
+    public Optional<Address> mapPerform() {
+        return addresses.stream()
                 .filter(a -> priorityMap.containsKey(a.getType()))
                 .min(Comparator.comparingInt(o -> priorityMap.get(o.getType())));
     }
 
-    static class Address {
+    @Benchmark
+    public Address resolverPerform() {
+        return resolver.selectMin(addresses);
+    }
+
+    static class Address implements PriorityResolver.Typed {
         int num;
         String type;
         String kind;
@@ -56,6 +89,7 @@ public class ListVsMapForPriority {
             this.kind = kind;
         }
 
+        @Override
         public String getType() {
             return type;
         }
@@ -0,0 +1,114 @@
+package jmh;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.function.LongPredicate;
+
+/**
+ * Growable {@code long[]} without the boxing of {@code List<Long>}. Reductions go through the
+ * {@link ReductionKernels} given at construction, {@link ReductionKernels#defaults()} otherwise.
+ */
+public class LongList {
+
+    private static final int DEFAULT_CAPACITY = 10;
+
+    private final ReductionKernels kernels;
+    private long[] values;
+    private int size;
+
+    public LongList() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public LongList(int capacity) {
+        this(capacity, ReductionKernels.defaults());
+    }
+
+    public LongList(int capacity, ReductionKernels kernels) {
+        this.values = new long[capacity];
+        this.kernels = kernels;
+    }
+
+    public static LongList of(long[] values, ReductionKernels kernels) {
+        LongList list = new LongList(values.length, kernels);
+        System.arraycopy(values, 0, list.values, 0, values.length);
+        list.size = values.length;
+        return list;
+    }
+
+    public void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length + (values.length >> 1), DEFAULT_CAPACITY));
+        }
+        values[size++] = value;
+    }
+
+    public long get(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    public void set(int index, long value) {
+        checkIndex(index);
+        values[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public long[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Wraps around on overflow, same as {@code LongStream.sum()}.
+     */
+    public long sum() {
+        return kernels.sum(values, size);
+    }
+
+    public long min() {
+        checkNotEmpty();
+        return kernels.min(values, size);
+    }
+
+    public long max() {
+        checkNotEmpty();
+        return kernels.max(values, size);
+    }
+
+    public int countGreaterThan(long threshold) {
+        return kernels.countGreaterThan(values, size, threshold);
+    }
+
+    public int countIf(LongPredicate predicate) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (predicate.test(values[i])) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("Empty list");
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-key counts in a {@code ConcurrentHashMap} against a {@link StripedLockMap}, updated through {@code merge}
+ * and {@code compute}. With 16 keys every thread fights over the same few bins, with 65536 they rarely meet.
+ * The {@code ...Mix} groups read three times for every write, where the lock-free {@code get} of the
+ * {@code ConcurrentHashMap} should pull away. {@link #main} sweeps 1 to all cores and a few reader:writer ratios.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MapContention {
+
+    @Param({"16", "1024", "65536"})
+    private int keys;
+
+    private Integer[] boxed;
+    private ConcurrentHashMap<Integer, Long> concurrent;
+    private StripedLockMap<Integer, Long> striped;
+
+    public static void main(String[] args) throws RunnerException {
+        ContentionSweep.run(MapContention.class, new int[]{1, 1}, new int[]{3, 1}, new int[]{7, 1});
+    }
+
+    private static final AtomicInteger SEEDS = new AtomicInteger();
+
+    // xorshift, each thread walks its own key sequence without sharing a Random
+    @State(Scope.Thread)
+    public static class Keys {
+        private int state = SEEDS.incrementAndGet() * 0x9E3779B9 | 1;
+
+        int next(int bound) {
+            state ^= state << 13;
+            state ^= state >>> 17;
+            state ^= state << 5;
+            return (state & Integer.MAX_VALUE) % bound;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        boxed = new Integer[keys];
+        concurrent = new ConcurrentHashMap<>();
+        striped = new StripedLockMap<>();
+        for (int i = 0; i < keys; i++) {
+            boxed[i] = i;
+            concurrent.put(boxed[i], 0L);
+            striped.put(boxed[i], 0L);
+        }
+    }
+
+    @Benchmark
+    public Long concurrentMerge(Keys keys) {
+        return concurrent.merge(boxed[keys.next(this.keys)], 1L, Long::sum);
+    }
+
+    @Benchmark
+    public Long concurrentCompute(Keys keys) {
+        return concurrent.compute(boxed[keys.next(this.keys)], (key, count) -> count == null ? 1L : count + 1);
+    }
+
+    @Benchmark
+    public Long stripedMerge(Keys keys) {
+        return striped.merge(boxed[keys.next(this.keys)], 1L, Long::sum);
+    }
+
+    @Benchmark
+    public Long stripedCompute(Keys keys) {
+        return striped.compute(boxed[keys.next(this.keys)], (key, count) -> count == null ? 1L : count + 1);
+    }
+
+    @Benchmark
+    @Group("concurrentMix")
+    @GroupThreads(3)
+    public Long concurrentRead(Keys keys) {
+        return concurrent.get(boxed[keys.next(this.keys)]);
+    }
+
+    @Benchmark
+    @Group("concurrentMix")
+    @GroupThreads(1)
+    public Long concurrentWrite(Keys keys) {
+        return concurrent.merge(boxed[keys.next(this.keys)], 1L, Long::sum);
+    }
+
+    @Benchmark
+    @Group("stripedMix")
+    @GroupThreads(3)
+    public Long stripedRead(Keys keys) {
+        return striped.get(boxed[keys.next(this.keys)]);
+    }
+
+    @Benchmark
+    @Group("stripedMix")
+    @GroupThreads(1)
+    public Long stripedWrite(Keys keys) {
+        return striped.merge(boxed[keys.next(this.keys)], 1L, Long::sum);
+    }
+}
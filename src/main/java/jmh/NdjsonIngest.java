@@ -0,0 +1,215 @@
+package jmh;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Reads newline-delimited JSON, one value per line, from a file of any size. The file is cut into chunks that end
+ * on a newline, each chunk is memory-mapped on its own and parsed by one of {@code threads} workers through its own
+ * {@code JsonParser} and {@code MappingIterator}, and the values come back in batches to a consumer on the calling
+ * thread. At most {@code queuedBatches} batches wait for the consumer, a worker that finds the queue full blocks,
+ * so a slow consumer slows the parsing down rather than filling the heap.
+ * <p>
+ * Batches keep the file order within a chunk, chunks arrive in whatever order the workers finish them.
+ */
+public final class NdjsonIngest<T> {
+
+    public static final int DEFAULT_CHUNK_BYTES = 8 << 20;
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    private static final byte NEWLINE = '\n';
+    private static final int SCAN_BYTES = 64 << 10;
+    // a worker only hands this over after its last batch, an empty list is never a real batch
+    private static final List<Object> DONE = List.of();
+
+    private final ObjectReader reader;
+    private final int threads;
+    private final int chunkBytes;
+    private final int batchSize;
+    private final int queuedBatches;
+
+    private NdjsonIngest(ObjectReader reader, int threads, int chunkBytes, int batchSize, int queuedBatches) {
+        if (threads < 1 || chunkBytes < 1 || batchSize < 1 || queuedBatches < 1) {
+            throw new IllegalArgumentException("Threads, chunk bytes, batch size and queued batches must be positive");
+        }
+        this.reader = reader;
+        this.threads = threads;
+        this.chunkBytes = chunkBytes;
+        this.batchSize = batchSize;
+        this.queuedBatches = queuedBatches;
+    }
+
+    public static <T> NdjsonIngest<T> of(TypeReference<T> type, int threads) {
+        return of(type, threads, DEFAULT_CHUNK_BYTES, DEFAULT_BATCH_SIZE, threads * 2);
+    }
+
+    public static <T> NdjsonIngest<T> of(TypeReference<T> type, int threads, int chunkBytes, int batchSize,
+                                         int queuedBatches) {
+        return new NdjsonIngest<>(ObjectMapperFactory.readerFor(type), threads, chunkBytes, batchSize, queuedBatches);
+    }
+
+    public static <T> NdjsonIngest<T> of(Class<T> type, int threads) {
+        return new NdjsonIngest<>(ObjectMapperFactory.readerFor(type), threads, DEFAULT_CHUNK_BYTES,
+                DEFAULT_BATCH_SIZE, threads * 2);
+    }
+
+    /**
+     * Parses the whole file, handing every batch to the consumer before returning. A record that does not parse,
+     * or a consumer that throws, stops the workers and is rethrown here.
+     */
+    @SuppressWarnings("unchecked")
+    public Result ingest(Path path, Consumer<? super List<T>> consumer) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = chunkBounds(channel);
+            int chunks = bounds.length - 1;
+            int workers = Math.min(threads, chunks);
+            if (workers == 0) {
+                return new Result(0, 0, System.nanoTime() - started);
+            }
+            BlockingQueue<List<?>> queue = new ArrayBlockingQueue<>(queuedBatches);
+            AtomicInteger nextChunk = new AtomicInteger();
+            ExecutorService pool = Executors.newFixedThreadPool(workers);
+            try {
+                for (int i = 0; i < workers; i++) {
+                    pool.execute(() -> {
+                        try {
+                            for (int chunk; (chunk = nextChunk.getAndIncrement()) < chunks; ) {
+                                parse(channel, bounds[chunk], bounds[chunk + 1], queue);
+                            }
+                            queue.put(DONE);
+                        } catch (InterruptedException e) {
+                            // cancelled by the calling thread, nobody is waiting for the rest
+                        } catch (RuntimeException | IOException e) {
+                            try {
+                                queue.put(List.of(new Failure(e)));
+                            } catch (InterruptedException ignored) {
+                            }
+                        }
+                    });
+                }
+                long records = 0;
+                for (int running = workers; running > 0; ) {
+                    List<?> batch = queue.take();
+                    if (batch == DONE) {
+                        running--;
+                    } else if (batch.size() == 1 && batch.get(0) instanceof Failure failure) {
+                        throw failure.rethrow();
+                    } else {
+                        records += batch.size();
+                        consumer.accept((List<T>) batch);
+                    }
+                }
+                return new Result(records, bounds[chunks], System.nanoTime() - started);
+            } finally {
+                // only does something when the consumer or a worker failed, the rest have exited by now
+                pool.shutdownNow();
+            }
+        }
+    }
+
+    private void parse(FileChannel channel, long start, long end, BlockingQueue<List<?>> queue)
+            throws IOException, InterruptedException {
+        ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        List<T> batch = new ArrayList<>(batchSize);
+        try (JsonParser parser = reader.getFactory().createParser(new ByteBufferBackedInputStream(chunk));
+             MappingIterator<T> values = reader.readValues(parser)) {
+            while (values.hasNextValue()) {
+                batch.add(values.nextValue());
+                if (batch.size() == batchSize) {
+                    queue.put(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalArgumentException("Cannot parse record in chunk starting at byte " + start, e);
+        }
+        if (!batch.isEmpty()) {
+            queue.put(batch);
+        }
+    }
+
+    // chunk i is [bounds[i], bounds[i + 1]), every bound but the last one just past a newline
+    private long[] chunkBounds(FileChannel channel) throws IOException {
+        long size = channel.size();
+        LongList bounds = new LongList((int) Math.min(size / chunkBytes + 2, 1 << 20));
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_BYTES);
+        long start = 0;
+        bounds.add(0);
+        while (start < size) {
+            long end = start + chunkBytes;
+            if (end >= size) {
+                end = size;
+            } else {
+                end = afterNewline(channel, end - 1, scan);
+            }
+            bounds.add(end);
+            start = end;
+        }
+        return bounds.toArray();
+    }
+
+    // position after the first newline at or past from, the end of the file if there is none
+    private static long afterNewline(FileChannel channel, long from, ByteBuffer scan) throws IOException {
+        long position = from;
+        while (true) {
+            scan.clear();
+            int read = channel.read(scan, position);
+            if (read < 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (scan.get(i) == NEWLINE) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+
+    public record Result(long records, long bytes, long nanos) {
+
+        public double megabytesPerSecond() {
+            return bytes / (1024.0 * 1024.0) / (nanos / 1e9);
+        }
+
+        public double recordsPerSecond() {
+            return records / (nanos / 1e9);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%d records, %d bytes in %.1f ms: %.1f MB/s, %.0f records/s",
+                    records, bytes, nanos / 1e6, megabytesPerSecond(), recordsPerSecond());
+        }
+    }
+
+    // travels through the queue so the calling thread sees a worker failure in order with the batches before it
+    private record Failure(Exception cause) {
+
+        RuntimeException rethrow() {
+            if (cause instanceof RuntimeException runtime) {
+                return runtime;
+            }
+            return new UncheckedIOException((IOException) cause);
+        }
+    }
+}
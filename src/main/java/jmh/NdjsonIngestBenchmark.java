@@ -0,0 +1,166 @@
+package jmh;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * A backfill export of row-key records with an address each, ingested by {@link NdjsonIngest} on 1 to N workers
+ * against reading it line by line through {@link ObjectMapperFactory#readValue(byte[], TypeReference)}. A full pass
+ * over the file is one operation, MB/s and records/s come out as the {@code megabytes} and {@code records} counters.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+public class NdjsonIngestBenchmark {
+
+    private static final TypeReference<Row> ROW_TYPE = new TypeReference<Row>() {
+    };
+    private static final String[] ADDRESS_TYPES = {"Office", "Correspondence", "Residence", "Next Door"};
+
+    @Param({"256"})
+    private int megabytes;
+
+    private Path file;
+    private long fileBytes;
+
+    // sweeps every worker count up to the number of cores instead of the defaults
+    public static void main(String[] args) throws RunnerException {
+        String[] threads = IntStream.rangeClosed(1, Runtime.getRuntime().availableProcessors())
+                .mapToObj(String::valueOf)
+                .toArray(String[]::new);
+        new Runner(new OptionsBuilder()
+                .include(NdjsonIngestBenchmark.class.getSimpleName())
+                .param("threads", threads)
+                .build()).run();
+    }
+
+    public static class Row {
+        public String rowKey;
+        public long ts;
+        public Address address;
+    }
+
+    public static class Address {
+        public int id;
+        public String type;
+        public String key;
+        public String street;
+        public String city;
+        public String postcode;
+    }
+
+    @State(Scope.Benchmark)
+    public static class Workers {
+        @Param({"1", "2", "4", "8"})
+        int threads;
+
+        NdjsonIngest<Row> ingest;
+
+        @Setup
+        public void setup() {
+            ingest = NdjsonIngest.of(ROW_TYPE, threads);
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long records;
+        public double megabytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            records = 0;
+            megabytes = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("backfill", ".ndjson");
+        SplittableRandom random = new SplittableRandom(0);
+        long timestamp = 1597064529541L;
+        long limit = (long) megabytes << 20;
+        long written = 0;
+        StringBuilder line = new StringBuilder(256);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; written < limit; i++) {
+                timestamp += random.nextInt(1000);
+                line.setLength(0);
+                line.append("{\"rowKey\":\"user").append(random.nextInt(1_000_000))
+                        .append(':').append(random.nextInt(100_000))
+                        .append("\",\"ts\":").append(timestamp)
+                        .append(",\"address\":{\"id\":").append(i)
+                        .append(",\"type\":\"").append(ADDRESS_TYPES[random.nextInt(ADDRESS_TYPES.length)])
+                        .append("\",\"key\":\"K").append(i)
+                        .append("\",\"street\":\"").append(random.nextInt(1, 400)).append(" Harbour Road")
+                        .append("\",\"city\":\"Springfield\",\"postcode\":\"").append(10_000 + random.nextInt(90_000))
+                        .append("\"},\"source\":\"nightly-export\"}\n");
+                writer.append(line);
+                // ASCII only, one char is one byte
+                written += line.length();
+            }
+        }
+        fileBytes = Files.size(file);
+        System.out.printf("%n%s: %d bytes%n", file, fileBytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public void pipeline(Workers workers, Counters counters, Blackhole blackhole)
+            throws IOException, InterruptedException {
+        NdjsonIngest.Result result = workers.ingest.ingest(file, batch -> consume(batch, blackhole));
+        counters.records += result.records();
+        counters.megabytes += result.bytes() / (1024.0 * 1024.0);
+    }
+
+    @Benchmark
+    public void readValuePerLine(Counters counters, Blackhole blackhole) throws IOException {
+        long records = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int start = 0;
+            for (int i = 0, size = mapped.limit(); i < size; i++) {
+                if (mapped.get(i) == '\n') {
+                    byte[] line = new byte[i - start];
+                    mapped.get(start, line);
+                    blackhole.consume(ObjectMapperFactory.readValue(line, ROW_TYPE).ts);
+                    records++;
+                    start = i + 1;
+                }
+            }
+        }
+        counters.records += records;
+        counters.megabytes += fileBytes / (1024.0 * 1024.0);
+    }
+
+    private static void consume(List<Row> batch, Blackhole blackhole) {
+        for (Row row : batch) {
+            blackhole.consume(row.ts);
+        }
+    }
+}
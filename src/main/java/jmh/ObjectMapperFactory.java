@@ -1,18 +1,30 @@
 package jmh;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
 
 import java.io.IOException;
+import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ObjectMapperFactory {
 
     private static ObjectMapper mapper;
+    private static JsonFactory factory;
+    private static final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
 
     static {
         mapper = new ObjectMapper();
         mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        factory = mapper.getFactory();
     }
 
     public static <T> T readValue(byte[] bytes, TypeReference<T> typeReference) {
@@ -22,4 +34,181 @@ public class ObjectMapperFactory {
             throw new IllegalArgumentException("Cannot convert bytes into required type");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Readers are immutable and thread-safe, so one per type is built on first use and shared.
+     */
+    public static ObjectReader readerFor(TypeReference<?> typeReference) {
+        return readers.computeIfAbsent(typeReference.getType(), type -> mapper.readerFor(typeReference));
+    }
+
+    public static ObjectReader readerFor(Class<?> type) {
+        return readers.computeIfAbsent(type, ignored -> mapper.readerFor(type));
+    }
+
+    public static <T> T read(byte[] bytes, TypeReference<T> typeReference) {
+        return read(bytes, 0, bytes.length, typeReference);
+    }
+
+    public static <T> T read(byte[] bytes, int offset, int length, TypeReference<T> typeReference) {
+        try {
+            return readerFor(typeReference).readValue(bytes, offset, length);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot convert bytes into required type", e);
+        }
+    }
+
+    public static <T> T read(ByteBuffer buffer, TypeReference<T> typeReference) {
+        if (buffer.hasArray()) {
+            return read(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining(), typeReference);
+        }
+        try {
+            return readerFor(typeReference).readValue(new ByteBufferBackedInputStream(buffer.duplicate()));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot convert bytes into required type", e);
+        }
+    }
+
+    // scalar fast paths, straight off the streaming parser without going through databind
+
+    public static long readLong(byte[] bytes) {
+        return readLong(bytes, 0, bytes.length);
+    }
+
+    public static long readLong(byte[] bytes, int offset, int length) {
+        try (JsonParser parser = factory.createParser(bytes, offset, length)) {
+            return readLong(parser);
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cannot convert bytes into required type", e);
+        }
+    }
+
+    public static long readLong(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return readLong(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        try (JsonParser parser = parserFor(buffer)) {
+            return readLong(parser);
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cannot convert bytes into required type", e);
+        }
+    }
+
+    private static long readLong(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return Long.parseLong(parser.getText().trim());
+        }
+        throw new IllegalArgumentException("Cannot convert bytes into required type");
+    }
+
+    public static int readInt(byte[] bytes) {
+        return readInt(bytes, 0, bytes.length);
+    }
+
+    public static int readInt(byte[] bytes, int offset, int length) {
+        try (JsonParser parser = factory.createParser(bytes, offset, length)) {
+            return readInt(parser);
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cannot convert bytes into required type", e);
+        }
+    }
+
+    public static int readInt(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return readInt(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        try (JsonParser parser = parserFor(buffer)) {
+            return readInt(parser);
+        } catch (IOException | NumberFormatException e) {
+            throw new IllegalArgumentException("Cannot convert bytes into required type", e);
+        }
+    }
+
+    private static int readInt(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getIntValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            return Integer.parseInt(parser.getText().trim());
+        }
+        throw new IllegalArgumentException("Cannot convert bytes into required type");
+    }
+
+    public static boolean readBoolean(byte[] bytes) {
+        return readBoolean(bytes, 0, bytes.length);
+    }
+
+    public static boolean readBoolean(byte[] bytes, int offset, int length) {
+        try (JsonParser parser = factory.createParser(bytes, offset, length)) {
+            return readBoolean(parser);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot convert bytes into required type", e);
+        }
+    }
+
+    public static boolean readBoolean(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return readBoolean(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        try (JsonParser parser = parserFor(buffer)) {
+            return readBoolean(parser);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot convert bytes into required type", e);
+        }
+    }
+
+    private static boolean readBoolean(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_TRUE) {
+            return true;
+        }
+        if (token == JsonToken.VALUE_FALSE) {
+            return false;
+        }
+        throw new IllegalArgumentException("Cannot convert bytes into required type");
+    }
+
+    public static String readString(byte[] bytes) {
+        return readString(bytes, 0, bytes.length);
+    }
+
+    public static String readString(byte[] bytes, int offset, int length) {
+        try (JsonParser parser = factory.createParser(bytes, offset, length)) {
+            return readString(parser);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot convert bytes into required type", e);
+        }
+    }
+
+    public static String readString(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return readString(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        try (JsonParser parser = parserFor(buffer)) {
+            return readString(parser);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot convert bytes into required type", e);
+        }
+    }
+
+    private static String readString(JsonParser parser) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != null && token.isScalarValue()) {
+            return parser.getText();
+        }
+        throw new IllegalArgumentException("Cannot convert bytes into required type");
+    }
+
+    // direct and read-only buffers are streamed in place, the duplicate keeps the caller's position where it was
+    private static JsonParser parserFor(ByteBuffer buffer) throws IOException {
+        return factory.createParser(new ByteBufferBackedInputStream(buffer.duplicate()));
+    }
+}
@@ -0,0 +1,145 @@
+package jmh;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Measurement(iterations = 10, time = 1)
+public class ObjectMapperFactoryBenchmark {
+
+    private static final TypeReference<Long> LONG_TYPE = new TypeReference<Long>() {
+    };
+
+    @State(Scope.Thread)
+    public static class Timestamp {
+        @Param({"1597064529541", "1597219312794", "1597220926618"})
+        private String timestamp;
+
+        private byte[] bytes;
+        private byte[] framed;
+        private ByteBuffer heapBuffer;
+        private ByteBuffer directBuffer;
+
+        @Setup
+        public void setup() {
+            bytes = timestamp.getBytes(StandardCharsets.UTF_8);
+            // payload in the middle of a bigger record, as it sits in a cell
+            framed = ("{\"ts\":" + timestamp + "}").getBytes(StandardCharsets.UTF_8);
+            heapBuffer = ByteBuffer.wrap(bytes);
+            directBuffer = direct(bytes);
+        }
+    }
+
+    // the other scalar fast paths, in a state of their own so they don't repeat for every timestamp
+    @State(Scope.Thread)
+    public static class Scalars {
+        private final byte[] intBytes = "1597064".getBytes(StandardCharsets.UTF_8);
+        private final byte[] booleanBytes = "true".getBytes(StandardCharsets.UTF_8);
+        // quoted and not all ASCII, so the String path has to decode rather than copy bytes
+        private final byte[] stringBytes = "\"user-1597064:produit-été\"".getBytes(StandardCharsets.UTF_8);
+        private final byte[] framedString = ("{\"key\":" + new String(stringBytes, StandardCharsets.UTF_8) + "}")
+                .getBytes(StandardCharsets.UTF_8);
+        private final ByteBuffer directString = direct(stringBytes);
+    }
+
+    private static ByteBuffer direct(byte[] bytes) {
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
+
+    @Benchmark
+    public Long factoryNewTypeReference(Timestamp t) {
+        return ObjectMapperFactory.readValue(t.bytes, new TypeReference<Long>() {
+        });
+    }
+
+    @Benchmark
+    public Long factoryConstantTypeReference(Timestamp t) {
+        return ObjectMapperFactory.readValue(t.bytes, LONG_TYPE);
+    }
+
+    @Benchmark
+    public Long cachedReader(Timestamp t) {
+        return ObjectMapperFactory.read(t.bytes, LONG_TYPE);
+    }
+
+    @Benchmark
+    public Long cachedReaderSlice(Timestamp t) {
+        return ObjectMapperFactory.read(t.framed, 6, t.bytes.length, LONG_TYPE);
+    }
+
+    @Benchmark
+    public Long cachedReaderDirectBuffer(Timestamp t) {
+        return ObjectMapperFactory.read(t.directBuffer, LONG_TYPE);
+    }
+
+    @Benchmark
+    public long streamingLong(Timestamp t) {
+        return ObjectMapperFactory.readLong(t.bytes);
+    }
+
+    @Benchmark
+    public long streamingLongSlice(Timestamp t) {
+        return ObjectMapperFactory.readLong(t.framed, 6, t.bytes.length);
+    }
+
+    @Benchmark
+    public long streamingLongHeapBuffer(Timestamp t) {
+        return ObjectMapperFactory.readLong(t.heapBuffer);
+    }
+
+    @Benchmark
+    public long streamingLongDirectBuffer(Timestamp t) {
+        return ObjectMapperFactory.readLong(t.directBuffer);
+    }
+
+    @Benchmark
+    public Integer factoryInt(Scalars s) {
+        return ObjectMapperFactory.readValue(s.intBytes, new TypeReference<Integer>() {
+        });
+    }
+
+    @Benchmark
+    public int streamingInt(Scalars s) {
+        return ObjectMapperFactory.readInt(s.intBytes);
+    }
+
+    @Benchmark
+    public Boolean factoryBoolean(Scalars s) {
+        return ObjectMapperFactory.readValue(s.booleanBytes, new TypeReference<Boolean>() {
+        });
+    }
+
+    @Benchmark
+    public boolean streamingBoolean(Scalars s) {
+        return ObjectMapperFactory.readBoolean(s.booleanBytes);
+    }
+
+    @Benchmark
+    public String factoryString(Scalars s) {
+        return ObjectMapperFactory.readValue(s.stringBytes, new TypeReference<String>() {
+        });
+    }
+
+    @Benchmark
+    public String streamingString(Scalars s) {
+        return ObjectMapperFactory.readString(s.stringBytes);
+    }
+
+    @Benchmark
+    public String streamingStringSlice(Scalars s) {
+        return ObjectMapperFactory.readString(s.framedString, 7, s.stringBytes.length);
+    }
+
+    @Benchmark
+    public String streamingStringDirectBuffer(Scalars s) {
+        return ObjectMapperFactory.readString(s.directString);
+    }
+}
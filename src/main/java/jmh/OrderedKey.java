@@ -0,0 +1,177 @@
+package jmh;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Builds composite keys whose unsigned byte order, {@link Bytes#compareTo}, is the order of their components:
+ * <ul>
+ * <li>longs and timestamps (epoch millis) are 8 big-endian bytes with the sign bit flipped</li>
+ * <li>strings are UTF-8 with each 0x00 escaped as 0x00 0xFF and end with 0x00 0x01, so neither an embedded
+ * delimiter nor a longer string sharing a prefix can reorder anything</li>
+ * </ul>
+ * Strings compare by code point, which only differs from {@code String.compareTo} for supplementary characters
+ * against U+E000..U+FFFF. A key can be cut after any component, or in the middle of a string with
+ * {@link #addStringPrefix}, to make a prefix for range scans. The builder is reusable: {@link #reset()} and go again.
+ */
+public final class OrderedKey {
+
+    private static final byte ESCAPE = 0x00;
+    private static final byte ESCAPED_ZERO = (byte) 0xFF;
+    private static final byte TERMINATOR = 0x01;
+
+    private byte[] bytes;
+    private int length;
+
+    public OrderedKey() {
+        this(64);
+    }
+
+    public OrderedKey(int capacity) {
+        this.bytes = new byte[capacity];
+    }
+
+    public OrderedKey reset() {
+        length = 0;
+        return this;
+    }
+
+    public OrderedKey addLong(long value) {
+        ensure(Long.BYTES);
+        length = Bytes.putLong(bytes, length, value ^ Long.MIN_VALUE);
+        return this;
+    }
+
+    public OrderedKey addTimestamp(Instant timestamp) {
+        return addLong(timestamp.toEpochMilli());
+    }
+
+    public OrderedKey addString(CharSequence value) {
+        addStringPrefix(value);
+        ensure(2);
+        bytes[length++] = ESCAPE;
+        bytes[length++] = TERMINATOR;
+        return this;
+    }
+
+    /**
+     * A string left open, only useful as the last component of a prefix: it matches every string starting with it.
+     */
+    public OrderedKey addStringPrefix(CharSequence value) {
+        int utf8Length = Bytes.utf8Length(value);
+        // worst case every byte is a zero to escape
+        ensure(utf8Length * 2);
+        int start = length;
+        int end = Bytes.putString(bytes, start, value);
+        int zeros = 0;
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == 0) {
+                zeros++;
+            }
+        }
+        if (zeros > 0) {
+            // spread right to left so nothing is overwritten before it has moved
+            int to = end + zeros;
+            for (int from = end - 1; from >= start; from--) {
+                if (bytes[from] == 0) {
+                    bytes[--to] = ESCAPED_ZERO;
+                    bytes[--to] = ESCAPE;
+                } else {
+                    bytes[--to] = bytes[from];
+                }
+            }
+            end += zeros;
+        }
+        length = end;
+        return this;
+    }
+
+    private void ensure(int extra) {
+        if (length + extra > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + extra));
+        }
+    }
+
+    /**
+     * @return the internal buffer, only the first {@link #length()} bytes are the key
+     */
+    public byte[] buffer() {
+        return bytes;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public byte[] toBytes() {
+        return Arrays.copyOf(bytes, length);
+    }
+
+    /**
+     * Reads components back in the order they were added.
+     */
+    public static final class Reader {
+        private byte[] bytes;
+        private int pos;
+        private int end;
+
+        public Reader reset(byte[] bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.pos = offset;
+            this.end = offset + length;
+            return this;
+        }
+
+        public long readLong() {
+            if (end - pos < Long.BYTES) {
+                throw new IllegalStateException("No long at " + pos);
+            }
+            long value = Bytes.toLong(bytes, pos) ^ Long.MIN_VALUE;
+            pos += Long.BYTES;
+            return value;
+        }
+
+        public Instant readTimestamp() {
+            return Instant.ofEpochMilli(readLong());
+        }
+
+        public String readString() {
+            byte[] decoded = null;
+            int decodedLength = 0;
+            int start = pos;
+            for (int i = pos; i < end; i++) {
+                if (bytes[i] != ESCAPE) {
+                    continue;
+                }
+                if (i + 1 >= end) {
+                    break;
+                }
+                if (bytes[i + 1] == TERMINATOR) {
+                    pos = i + 2;
+                    if (decoded == null) {
+                        return new String(bytes, start, i - start, StandardCharsets.UTF_8);
+                    }
+                    System.arraycopy(bytes, start, decoded, decodedLength, i - start);
+                    return new String(decoded, 0, decodedLength + i - start, StandardCharsets.UTF_8);
+                }
+                if (bytes[i + 1] != ESCAPED_ZERO) {
+                    break;
+                }
+                // only strings with zeros in them pay for a copy
+                if (decoded == null) {
+                    decoded = new byte[end - pos];
+                }
+                System.arraycopy(bytes, start, decoded, decodedLength, i - start + 1);
+                decodedLength += i - start + 1;
+                start = i + 2;
+                i++;
+            }
+            throw new IllegalStateException("No terminated string at " + pos);
+        }
+
+        public boolean hasRemaining() {
+            return pos < end;
+        }
+    }
+}
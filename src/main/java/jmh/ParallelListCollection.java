@@ -0,0 +1,130 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@link CollectorsVsStreamToList} across sizes and pool parallelism, with {@link ParallelLists} next to the JDK
+ * collectors. Run {@code main} to also get the size from which each parallel strategy beats sequential toList.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class ParallelListCollection {
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    private int size;
+
+    private Integer[] values;
+
+    public static void main(String[] args) throws RunnerException {
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .include(ParallelListCollection.class.getSimpleName())
+                .build()).run();
+        printCrossover(results);
+    }
+
+    // smallest size from which a parallel strategy at each parallelism is faster than sequential toList
+    static void printCrossover(Collection<RunResult> results) {
+        Map<String, Double> scores = new HashMap<>();
+        SortedSet<Integer> sizes = new TreeSet<>();
+        SortedSet<Integer> levels = new TreeSet<>();
+        Set<String> strategies = new TreeSet<>();
+        for (RunResult result : results) {
+            String method = result.getParams().getBenchmark();
+            method = method.substring(method.lastIndexOf('.') + 1);
+            int size = Integer.parseInt(result.getParams().getParam("size"));
+            // sequential runs have no pool and so no parallelism
+            String parallelism = result.getParams().getParam("parallelism");
+            sizes.add(size);
+            if (parallelism == null) {
+                scores.put(method + "/" + size, result.getPrimaryResult().getScore());
+                continue;
+            }
+            levels.add(Integer.parseInt(parallelism));
+            strategies.add(method);
+            scores.put(method + "/" + size + "/" + parallelism, result.getPrimaryResult().getScore());
+        }
+        System.out.println();
+        for (String strategy : strategies) {
+            for (int parallelism : levels) {
+                Integer crossover = null;
+                for (int size : sizes) {
+                    Double sequential = scores.get("sequentialToList/" + size);
+                    Double parallel = scores.get(strategy + "/" + size + "/" + parallelism);
+                    if (sequential != null && parallel != null && parallel < sequential) {
+                        crossover = size;
+                        break;
+                    }
+                }
+                System.out.printf("%-24s parallelism %2d: %s%n", strategy, parallelism,
+                        crossover == null ? "never wins" : "wins from " + crossover + " elements");
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(0);
+        values = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(1000);
+        }
+    }
+
+    // only the parallel benchmarks take this, so the sequential ones run once per size rather than once per level
+    @State(Scope.Thread)
+    public static class Pool {
+        @Param({"1", "2", "4", "8"})
+        private int parallelism;
+
+        private ForkJoinPool pool;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            pool = new ForkJoinPool(parallelism);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public List<Integer> sequentialToList() {
+        return Arrays.stream(values).toList();
+    }
+
+    @Benchmark
+    public List<Integer> sequentialCollectors() {
+        return Arrays.stream(values).collect(Collectors.toList());
+    }
+
+    // a parallel stream runs in the pool of the thread that starts the terminal operation
+    @Benchmark
+    public List<Integer> parallelCollectors(Pool pool) {
+        return pool.pool.submit(() -> Arrays.stream(values).parallel().collect(Collectors.toList())).join();
+    }
+
+    @Benchmark
+    public List<Integer> parallelToList(Pool pool) {
+        return pool.pool.submit(() -> Arrays.stream(values).parallel().toList()).join();
+    }
+
+    @Benchmark
+    public List<Integer> parallelPresized(Pool pool) {
+        return ParallelLists.toList(Arrays.stream(values), pool.pool);
+    }
+}
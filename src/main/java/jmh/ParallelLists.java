@@ -0,0 +1,107 @@
+package jmh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Collects a stream into a list by pre-sizing one array and letting every fork-join leaf write its own slice.
+ * That needs a SIZED and SUBSIZED source, which is what arrays, array lists and ranges followed by
+ * {@code map}/{@code peek}/{@code sorted} give; anything else falls back to a sequential collect. The stream is
+ * switched to parallel first, a sequential pipeline's spliterator never splits past its source.
+ * No partial lists are created, merged or copied at the end, unlike {@code Collectors.toList()}.
+ */
+public final class ParallelLists {
+
+    // below this many elements per worker the fork/join overhead isn't worth it
+    static final int MIN_LEAF_SIZE = 4096;
+    private static final int LEAVES_PER_WORKER = 4;
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private ParallelLists() {
+    }
+
+    public static <T> List<T> toList(Stream<? extends T> stream) {
+        return toList(stream, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @return an unmodifiable list in encounter order
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> List<T> toList(Stream<? extends T> stream, ForkJoinPool pool) {
+        Spliterator<? extends T> spliterator = stream.parallel().spliterator();
+        long size = spliterator.getExactSizeIfKnown();
+        if (size < 0 || size > MAX_ARRAY_SIZE || !spliterator.hasCharacteristics(Spliterator.SUBSIZED)) {
+            List<T> list = new ArrayList<>();
+            spliterator.forEachRemaining(list::add);
+            return Collections.unmodifiableList(list);
+        }
+        Object[] array = new Object[(int) size];
+        long leafSize = Math.max(size / ((long) pool.getParallelism() * LEAVES_PER_WORKER), MIN_LEAF_SIZE);
+        if (size <= leafSize) {
+            spliterator.forEachRemaining(new SliceWriter(array, 0));
+        } else {
+            pool.invoke(new Fill(spliterator, array, 0, leafSize));
+        }
+        return Collections.unmodifiableList(Arrays.asList((T[]) array));
+    }
+
+    // fork-join tasks are never serialized, RecursiveAction is Serializable only by inheritance
+    @SuppressWarnings("serial")
+    private static final class Fill extends RecursiveAction {
+        private final Spliterator<?> spliterator;
+        private final Object[] array;
+        private final int offset;
+        private final long leafSize;
+
+        private Fill(Spliterator<?> spliterator, Object[] array, int offset, long leafSize) {
+            this.spliterator = spliterator;
+            this.array = array;
+            this.offset = offset;
+            this.leafSize = leafSize;
+        }
+
+        @Override
+        protected void compute() {
+            Spliterator<?> rest = spliterator;
+            int restOffset = offset;
+            List<Fill> forked = new ArrayList<>();
+            Spliterator<?> prefix;
+            // trySplit hands out the prefix, so its slice starts where ours did and ours moves past it
+            while (rest.estimateSize() > leafSize && (prefix = rest.trySplit()) != null) {
+                // size has to be read before forking, the task starts consuming the prefix right away
+                int prefixSize = (int) prefix.getExactSizeIfKnown();
+                Fill task = new Fill(prefix, array, restOffset, leafSize);
+                task.fork();
+                forked.add(task);
+                restOffset += prefixSize;
+            }
+            rest.forEachRemaining(new SliceWriter(array, restOffset));
+            for (int i = forked.size() - 1; i >= 0; i--) {
+                forked.get(i).join();
+            }
+        }
+    }
+
+    private static final class SliceWriter implements Consumer<Object> {
+        private final Object[] array;
+        private int position;
+
+        private SliceWriter(Object[] array, int position) {
+            this.array = array;
+            this.position = position;
+        }
+
+        @Override
+        public void accept(Object value) {
+            array[position++] = value;
+        }
+    }
+}
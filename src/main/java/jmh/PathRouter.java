@@ -0,0 +1,279 @@
+package jmh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * URL path router over a compressed radix trie. Patterns are made of static text, {@code {name}} captures that
+ * match one non-empty segment, and a trailing {@code *} that matches the rest of the path:
+ * {@code /users/{id}/orders/{orderId}}, {@code /static/*}.
+ * <p>
+ * When several routes could match, static text wins over a capture and a capture over the wildcard, backtracking
+ * where a more specific branch dead-ends. Matching allocates nothing, captures are written as offsets into a
+ * reusable {@link Match}.
+ */
+public class PathRouter<T> {
+
+    private final Node root = new Node(new char[0]);
+    private final List<Route<T>> routes = new ArrayList<>();
+    private int maxParams;
+
+    public PathRouter<T> add(String pattern, T handler) {
+        List<String> names = new ArrayList<>();
+        Node node = root;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '{') {
+                int close = pattern.indexOf('}', i);
+                if (close < 0 || close == i + 1) {
+                    throw new IllegalArgumentException("Malformed capture in " + pattern);
+                }
+                if (close + 1 < pattern.length() && pattern.charAt(close + 1) != '/') {
+                    throw new IllegalArgumentException("A capture must span a whole segment in " + pattern);
+                }
+                names.add(pattern.substring(i + 1, close));
+                if (node.param == null) {
+                    node.param = new Node(new char[0]);
+                }
+                node = node.param;
+                i = close + 1;
+            } else if (c == '*') {
+                if (i != pattern.length() - 1) {
+                    throw new IllegalArgumentException("Wildcard must come last in " + pattern);
+                }
+                names.add("*");
+                if (node.wildcard == null) {
+                    node.wildcard = new Node(new char[0]);
+                }
+                node = node.wildcard;
+                i++;
+            } else {
+                int end = i;
+                while (end < pattern.length() && pattern.charAt(end) != '{' && pattern.charAt(end) != '*') {
+                    end++;
+                }
+                node = insertStatic(node, pattern.substring(i, end).toCharArray());
+                i = end;
+            }
+        }
+        if (node.route >= 0) {
+            throw new IllegalArgumentException("Route " + pattern + " clashes with " + routes.get(node.route).pattern());
+        }
+        node.route = routes.size();
+        routes.add(new Route<>(pattern, handler, names.toArray(new String[0])));
+        maxParams = Math.max(maxParams, names.size());
+        return this;
+    }
+
+    private static Node insertStatic(Node node, char[] text) {
+        int pos = 0;
+        while (pos < text.length) {
+            Node child = node.child(text[pos]);
+            if (child == null) {
+                child = new Node(Arrays.copyOfRange(text, pos, text.length));
+                node.addChild(child);
+                return child;
+            }
+            int common = 0;
+            while (common < child.label.length && pos + common < text.length
+                    && child.label[common] == text[pos + common]) {
+                common++;
+            }
+            if (common < child.label.length) {
+                child = node.split(child, common);
+            }
+            node = child;
+            pos += common;
+        }
+        return node;
+    }
+
+    /**
+     * A holder sized for this router's longest pattern, reuse it across calls on the same thread.
+     */
+    public Match<T> newMatch() {
+        return new Match<>(maxParams);
+    }
+
+    /**
+     * @return whether a route matched; on a miss the contents of {@code into} are undefined
+     */
+    public boolean match(CharSequence path, Match<T> into) {
+        if (into.starts.length < maxParams) {
+            throw new IllegalArgumentException("Match holder too small, use newMatch() after adding routes");
+        }
+        into.path = path;
+        int route = match(root, path, 0, 0, into);
+        if (route < 0) {
+            into.route = null;
+            return false;
+        }
+        into.route = routes.get(route);
+        return true;
+    }
+
+    // called once the label of node has been matched up to pos
+    private int match(Node node, CharSequence path, int pos, int depth, Match<T> into) {
+        int length = path.length();
+        if (pos == length && node.route >= 0) {
+            return node.route;
+        }
+        if (pos < length) {
+            Node child = node.child(path.charAt(pos));
+            if (child != null && regionMatches(child.label, path, pos)) {
+                int route = match(child, path, pos + child.label.length, depth, into);
+                if (route >= 0) {
+                    return route;
+                }
+            }
+            if (node.param != null) {
+                int end = pos;
+                while (end < length && path.charAt(end) != '/') {
+                    end++;
+                }
+                if (end > pos) {
+                    int route = match(node.param, path, end, depth + 1, into);
+                    if (route >= 0) {
+                        into.starts[depth] = pos;
+                        into.ends[depth] = end;
+                        return route;
+                    }
+                }
+            }
+        }
+        if (node.wildcard != null && node.wildcard.route >= 0) {
+            into.starts[depth] = pos;
+            into.ends[depth] = length;
+            return node.wildcard.route;
+        }
+        return -1;
+    }
+
+    private static boolean regionMatches(char[] label, CharSequence path, int pos) {
+        if (pos + label.length > path.length()) {
+            return false;
+        }
+        for (int i = 0; i < label.length; i++) {
+            if (path.charAt(pos + i) != label[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return routes.size();
+    }
+
+    record Route<T>(String pattern, T handler, String[] names) {
+    }
+
+    private static final class Node {
+        private char[] label;
+        private char[] firsts = new char[0];
+        private Node[] children = new Node[0];
+        private Node param;
+        private Node wildcard;
+        private int route = -1;
+
+        private Node(char[] label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            char[] firsts = this.firsts;
+            for (int i = 0; i < firsts.length; i++) {
+                if (firsts[i] == first) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        private void addChild(Node child) {
+            firsts = Arrays.copyOf(firsts, firsts.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            firsts[firsts.length - 1] = child.label[0];
+            children[children.length - 1] = child;
+        }
+
+        // splits child so that its first `at` label chars become a new intermediate node
+        private Node split(Node child, int at) {
+            Node middle = new Node(Arrays.copyOf(child.label, at));
+            child.label = Arrays.copyOfRange(child.label, at, child.label.length);
+            middle.addChild(child);
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == child) {
+                    children[i] = middle;
+                }
+            }
+            return middle;
+        }
+    }
+
+    /**
+     * Result of a match: the route plus capture offsets into the matched path, valid until the next match into it.
+     */
+    public static final class Match<T> {
+        private final int[] starts;
+        private final int[] ends;
+        private CharSequence path;
+        private Route<T> route;
+
+        private Match(int capacity) {
+            this.starts = new int[capacity];
+            this.ends = new int[capacity];
+        }
+
+        public T handler() {
+            return route.handler();
+        }
+
+        public String pattern() {
+            return route.pattern();
+        }
+
+        public int paramCount() {
+            return route.names().length;
+        }
+
+        public String paramName(int index) {
+            return route.names()[index];
+        }
+
+        public int paramStart(int index) {
+            return starts[index];
+        }
+
+        public int paramEnd(int index) {
+            return ends[index];
+        }
+
+        /**
+         * @return index of the named capture, {@code "*"} for the wildcard, or -1
+         */
+        public int paramIndex(String name) {
+            String[] names = route.names();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Materializes a capture, the only call here that allocates.
+         */
+        public String param(int index) {
+            return path.subSequence(starts[index], ends[index]).toString();
+        }
+
+        public String param(String name) {
+            int index = paramIndex(name);
+            return index < 0 ? null : param(index);
+        }
+    }
+}
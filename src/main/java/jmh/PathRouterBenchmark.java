@@ -0,0 +1,142 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * What comes after {@link StringEqualsOneCharacter}: resolving the path against the whole route table.
+ * Each operation routes one request path, one in ten of them doesn't match any route.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Measurement(iterations = 10, time = 1)
+public class PathRouterBenchmark {
+
+    private static final int PATHS = 1024;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int routeCount;
+
+    private List<Pattern> regexes;
+    private Map<String, Integer> staticRoutes;
+    private Map<String, List<String[]>> templatesByStaticPrefix;
+    private PathRouter<Integer> router;
+    private PathRouter.Match<Integer> match;
+    private String[] paths;
+    private int next;
+
+    @Setup
+    public void setup() {
+        List<String> patterns = new ArrayList<>(routeCount);
+        for (int i = 0; patterns.size() < routeCount; i++) {
+            patterns.add("/api/v1/resource" + i);
+            patterns.add("/api/v1/resource" + i + "/{id}");
+            patterns.add("/api/v1/resource" + i + "/{id}/items/{itemId}");
+            patterns.add("/static" + i + "/*");
+        }
+        patterns = patterns.subList(0, routeCount);
+
+        regexes = new ArrayList<>();
+        staticRoutes = new HashMap<>();
+        templatesByStaticPrefix = new HashMap<>();
+        router = new PathRouter<>();
+        for (int i = 0; i < patterns.size(); i++) {
+            String pattern = patterns.get(i);
+            regexes.add(Pattern.compile(pattern.replaceAll("\\{[^}]+}", "([^/]+)").replace("*", "(.*)")));
+            if (pattern.contains("{") || pattern.contains("*")) {
+                templatesByStaticPrefix.computeIfAbsent(staticPrefix(pattern), k -> new ArrayList<>())
+                        .add(pattern.substring(1).split("/", -1));
+            } else {
+                staticRoutes.put(pattern, i);
+            }
+            router.add(pattern, i);
+        }
+        match = router.newMatch();
+
+        Random random = new Random(0);
+        paths = new String[PATHS];
+        for (int i = 0; i < PATHS; i++) {
+            String pattern = patterns.get(random.nextInt(patterns.size()));
+            paths[i] = random.nextInt(10) == 0
+                    ? "/missing/" + random.nextInt(1000)
+                    : pattern.replaceAll("\\{[^}]+}", String.valueOf(random.nextInt(100_000)))
+                    .replace("*", "css/site-" + random.nextInt(100) + ".css");
+        }
+    }
+
+    // everything before the first capture or wildcard segment, "/api/v1/resource7" for "/api/v1/resource7/{id}"
+    private static String staticPrefix(String pattern) {
+        int capture = pattern.indexOf("/{");
+        int wildcard = pattern.indexOf("/*");
+        return pattern.substring(0, capture < 0 ? wildcard : wildcard < 0 ? capture : Math.min(capture, wildcard));
+    }
+
+    private String nextPath() {
+        return paths[next++ & (PATHS - 1)];
+    }
+
+    @Benchmark
+    public int regexScan() {
+        String path = nextPath();
+        for (int i = 0; i < regexes.size(); i++) {
+            Matcher matcher = regexes.get(i).matcher(path);
+            if (matcher.matches()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Benchmark
+    public Object splitThenMap() {
+        String path = nextPath();
+        Integer exact = staticRoutes.get(path);
+        if (exact != null) {
+            return exact;
+        }
+        // longest static prefix first, each hit only holds the few templates sharing that prefix
+        String[] segments = null;
+        for (int end = path.lastIndexOf('/'); end > 0; end = path.lastIndexOf('/', end - 1)) {
+            List<String[]> candidates = templatesByStaticPrefix.get(path.substring(0, end));
+            if (candidates == null) {
+                continue;
+            }
+            if (segments == null) {
+                segments = path.substring(1).split("/", -1);
+            }
+            for (String[] template : candidates) {
+                if (matches(template, segments)) {
+                    return template;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean matches(String[] template, String[] segments) {
+        for (int i = 0; i < template.length; i++) {
+            if (template[i].equals("*")) {
+                return true;
+            }
+            if (i >= segments.length) {
+                return false;
+            }
+            if (!template[i].startsWith("{") && !template[i].equals(segments[i])) {
+                return false;
+            }
+        }
+        return template.length == segments.length;
+    }
+
+    @Benchmark
+    public Integer radixTrie() {
+        return router.match(nextPath(), match) ? match.handler() : null;
+    }
+}
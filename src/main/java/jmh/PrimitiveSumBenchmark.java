@@ -0,0 +1,92 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH take on {@link InlinedStreamSumVsIterativeSum}: boxed streams against primitive storage,
+ * with both the scalar and the Vector API reduction kernels.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Measurement(iterations = 10, time = 1)
+public class PrimitiveSumBenchmark {
+
+    @Param({"10", "1000", "100000", "10000000"})
+    private int size;
+
+    private List<Integer> boxed;
+    private int[] array;
+    private IntList scalarList;
+    private IntList vectorList;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        boxed = new ArrayList<>(size);
+        array = new int[size];
+        for (int i = 0; i < size; i++) {
+            int value = random.nextInt();
+            boxed.add(value);
+            array[i] = value;
+        }
+        scalarList = IntList.of(array, ReductionKernels.scalar());
+        vectorList = IntList.of(array, ReductionKernels.vector());
+    }
+
+    @Benchmark
+    public int boxedStreamReduce() {
+        return boxed.stream().reduce(0, Integer::sum);
+    }
+
+    @Benchmark
+    public int boxedStreamMapToInt() {
+        return boxed.stream().mapToInt(e -> e).sum();
+    }
+
+    @Benchmark
+    public int primitiveArrayLoop() {
+        int sum = 0;
+        for (int value : array) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int intListScalar() {
+        return scalarList.sum();
+    }
+
+    @Benchmark
+    public int intListVector() {
+        return vectorList.sum();
+    }
+
+    @Benchmark
+    public int intListScalarCount() {
+        return scalarList.countGreaterThan(0);
+    }
+
+    @Benchmark
+    public int intListVectorCount() {
+        return vectorList.countGreaterThan(0);
+    }
+
+    @Benchmark
+    public int intListScalarMax() {
+        return scalarList.max();
+    }
+
+    @Benchmark
+    public int intListVectorMax() {
+        return vectorList.max();
+    }
+}
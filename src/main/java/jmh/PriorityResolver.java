@@ -0,0 +1,204 @@
+package jmh;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A type to priority table compiled once into a minimal-probe lookup: the cached {@code String.hashCode()}
+ * goes through a hash-and-displace perfect hash, so every known type lands on its own slot and a lookup is
+ * two array reads plus one {@code equals}. Lower priority wins.
+ */
+public final class PriorityResolver {
+
+    public static final int NO_PRIORITY = Integer.MAX_VALUE;
+
+    private static final int KEYS_PER_BUCKET = 4;
+    private static final int MAX_DISPLACEMENT = 1 << 20;
+
+    private final int[] displacements;
+    private final int bucketMask;
+    private final int slotMask;
+    private final String[] keys;
+    private final int[] priorities;
+    // distinct types sharing a hashCode cannot be told apart by the perfect hash, they are scanned instead
+    private final String[] overflowKeys;
+    private final int[] overflowPriorities;
+
+    private PriorityResolver(int[] displacements, String[] keys, int[] priorities,
+                             String[] overflowKeys, int[] overflowPriorities) {
+        this.displacements = displacements;
+        this.bucketMask = displacements.length - 1;
+        this.keys = keys;
+        this.slotMask = keys.length - 1;
+        this.priorities = priorities;
+        this.overflowKeys = overflowKeys;
+        this.overflowPriorities = overflowPriorities;
+    }
+
+    /**
+     * Types in priority order, the first one being the most preferred.
+     */
+    public static PriorityResolver compile(List<String> orderedTypes) {
+        Map<String, Integer> priorities = new HashMap<>();
+        for (int i = 0; i < orderedTypes.size(); i++) {
+            priorities.putIfAbsent(orderedTypes.get(i), i + 1);
+        }
+        return compile(priorities);
+    }
+
+    public static PriorityResolver compile(Map<String, Integer> priorities) {
+        Map<Integer, List<String>> byHash = new HashMap<>();
+        for (String type : priorities.keySet()) {
+            byHash.computeIfAbsent(type.hashCode(), h -> new ArrayList<>()).add(type);
+        }
+        List<String> overflow = new ArrayList<>();
+        List<String> unique = new ArrayList<>();
+        for (List<String> sameHash : byHash.values()) {
+            unique.add(sameHash.get(0));
+            overflow.addAll(sameHash.subList(1, sameHash.size()));
+        }
+
+        int slots = tableSizeFor(Math.max(unique.size(), 1));
+        int buckets = tableSizeFor(Math.max(unique.size() / KEYS_PER_BUCKET, 1));
+        List<List<String>> bucketed = new ArrayList<>(buckets);
+        for (int i = 0; i < buckets; i++) {
+            bucketed.add(new ArrayList<>());
+        }
+        for (String type : unique) {
+            bucketed.get(bucket(type.hashCode(), buckets - 1)).add(type);
+        }
+        Integer[] order = new Integer[buckets];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingInt((Integer b) -> bucketed.get(b).size()).reversed());
+
+        int[] displacements = new int[buckets];
+        String[] keys = new String[slots];
+        int[] slotPriorities = new int[slots];
+        Arrays.fill(slotPriorities, NO_PRIORITY);
+        int[] candidate = new int[KEYS_PER_BUCKET * 8];
+        for (int b : order) {
+            List<String> members = bucketed.get(b);
+            if (members.isEmpty()) {
+                break;
+            }
+            if (candidate.length < members.size()) {
+                candidate = new int[members.size()];
+            }
+            int displacement = place(members, keys, slots - 1, candidate);
+            displacements[b] = displacement;
+            for (int i = 0; i < members.size(); i++) {
+                keys[candidate[i]] = members.get(i);
+                slotPriorities[candidate[i]] = priorities.get(members.get(i));
+            }
+        }
+
+        int[] overflowPriorities = new int[overflow.size()];
+        for (int i = 0; i < overflow.size(); i++) {
+            overflowPriorities[i] = priorities.get(overflow.get(i));
+        }
+        return new PriorityResolver(displacements, keys, slotPriorities,
+                overflow.toArray(new String[0]), overflowPriorities);
+    }
+
+    private static int place(List<String> members, String[] keys, int slotMask, int[] candidate) {
+        search:
+        for (int displacement = 0; displacement < MAX_DISPLACEMENT; displacement++) {
+            for (int i = 0; i < members.size(); i++) {
+                int slot = slot(members.get(i).hashCode(), displacement, slotMask);
+                if (keys[slot] != null) {
+                    continue search;
+                }
+                for (int j = 0; j < i; j++) {
+                    if (candidate[j] == slot) {
+                        continue search;
+                    }
+                }
+                candidate[i] = slot;
+            }
+            return displacement;
+        }
+        throw new IllegalStateException("Cannot build a perfect hash for " + members);
+    }
+
+    private static int bucket(int hash, int bucketMask) {
+        return mix(hash) & bucketMask;
+    }
+
+    private static int slot(int hash, int displacement, int slotMask) {
+        return mix(hash ^ (displacement * 0x9E3779B9)) & slotMask;
+    }
+
+    // murmur3 fmix32, String.hashCode alone has poor low bits for short keys
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int tableSizeFor(int n) {
+        return n <= 1 ? 1 : Integer.highestOneBit(n - 1) << 1;
+    }
+
+    public int priorityOf(String type) {
+        if (type == null) {
+            return NO_PRIORITY;
+        }
+        int hash = type.hashCode();
+        int slot = slot(hash, displacements[bucket(hash, bucketMask)], slotMask);
+        String key = keys[slot];
+        if (key == type || (key != null && key.equals(type))) {
+            return priorities[slot];
+        }
+        for (int i = 0; i < overflowKeys.length; i++) {
+            if (overflowKeys[i].equals(type)) {
+                return overflowPriorities[i];
+            }
+        }
+        return NO_PRIORITY;
+    }
+
+    /**
+     * @return index of the first type with the lowest priority, or -1 if none of them is known
+     */
+    public int selectMin(String[] types) {
+        int best = -1;
+        int bestPriority = NO_PRIORITY;
+        for (int i = 0; i < types.length; i++) {
+            int priority = priorityOf(types[i]);
+            if (priority < bestPriority) {
+                bestPriority = priority;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return first item with the lowest priority type, or null if none of them is known
+     */
+    public <T extends Typed> T selectMin(List<T> items) {
+        T best = null;
+        int bestPriority = NO_PRIORITY;
+        for (int i = 0, size = items.size(); i < size; i++) {
+            T item = items.get(i);
+            int priority = priorityOf(item.getType());
+            if (priority < bestPriority) {
+                bestPriority = priority;
+                best = item;
+            }
+        }
+        return best;
+    }
+
+    public interface Typed {
+
+        String getType();
+    }
+}
@@ -0,0 +1,126 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.RunnerException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * A two-field point read far more often than it moves, guarded by a {@code ReentrantReadWriteLock} or by a
+ * {@code StampedLock} read optimistically. Even uncontended, every read lock acquisition writes the shared reader
+ * count, an optimistic read only loads the stamp. The read-only benchmarks sweep 1 to all cores, the {@code ...Mix}
+ * groups add a writer. Each read checks the invariant, a torn read fails the run.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@State(Scope.Benchmark)
+@Threads(Threads.MAX)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ReadWriteLockContention {
+
+    private final ReentrantReadWriteLock readWriteLock = new ReentrantReadWriteLock();
+    private final StampedLock stampedLock = new StampedLock();
+    // y is always twice x
+    private long x;
+    private long y;
+
+    public static void main(String[] args) throws RunnerException {
+        ContentionSweep.run(ReadWriteLockContention.class, new int[]{1, 1}, new int[]{3, 1}, new int[]{7, 1},
+                new int[]{15, 1});
+    }
+
+    private long readLocked() {
+        readWriteLock.readLock().lock();
+        try {
+            return checked(x, y);
+        } finally {
+            readWriteLock.readLock().unlock();
+        }
+    }
+
+    private void writeLocked() {
+        readWriteLock.writeLock().lock();
+        try {
+            x++;
+            y += 2;
+        } finally {
+            readWriteLock.writeLock().unlock();
+        }
+    }
+
+    private long readOptimistic() {
+        long stamp = stampedLock.tryOptimisticRead();
+        long currentX = x;
+        long currentY = y;
+        if (!stampedLock.validate(stamp)) {
+            // a writer got in between, fall back to a real read lock
+            stamp = stampedLock.readLock();
+            try {
+                currentX = x;
+                currentY = y;
+            } finally {
+                stampedLock.unlockRead(stamp);
+            }
+        }
+        return checked(currentX, currentY);
+    }
+
+    private void writeStamped() {
+        long stamp = stampedLock.writeLock();
+        try {
+            x++;
+            y += 2;
+        } finally {
+            stampedLock.unlockWrite(stamp);
+        }
+    }
+
+    private static long checked(long x, long y) {
+        if (y != 2 * x) {
+            throw new IllegalStateException("Torn read " + x + ", " + y);
+        }
+        return x;
+    }
+
+    @Benchmark
+    public long readWriteLockReadOnly() {
+        return readLocked();
+    }
+
+    @Benchmark
+    public long stampedLockReadOnly() {
+        return readOptimistic();
+    }
+
+    @Benchmark
+    @Group("readWriteLockMix")
+    @GroupThreads(7)
+    public long readWriteLockRead() {
+        return readLocked();
+    }
+
+    @Benchmark
+    @Group("readWriteLockMix")
+    @GroupThreads(1)
+    public void readWriteLockWrite() {
+        writeLocked();
+    }
+
+    @Benchmark
+    @Group("stampedLockMix")
+    @GroupThreads(7)
+    public long stampedLockRead() {
+        return readOptimistic();
+    }
+
+    @Benchmark
+    @Group("stampedLockMix")
+    @GroupThreads(1)
+    public void stampedLockWrite() {
+        writeStamped();
+    }
+}
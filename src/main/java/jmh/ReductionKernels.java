@@ -0,0 +1,55 @@
+package jmh;
+
+import java.util.Locale;
+
+/**
+ * Reductions over the used prefix of a primitive array. Pick one with {@code -Dreduction.kernels=scalar|vector};
+ * the default uses the vector kernels whenever the JVM was started with
+ * {@code --add-modules jdk.incubator.vector}.
+ */
+public interface ReductionKernels {
+
+    int sum(int[] values, int length);
+
+    int min(int[] values, int length);
+
+    int max(int[] values, int length);
+
+    int countGreaterThan(int[] values, int length, int threshold);
+
+    long sum(long[] values, int length);
+
+    long min(long[] values, int length);
+
+    long max(long[] values, int length);
+
+    int countGreaterThan(long[] values, int length, long threshold);
+
+    static ReductionKernels scalar() {
+        return ScalarKernels.INSTANCE;
+    }
+
+    /**
+     * @throws IllegalStateException if the incubator vector module isn't available
+     */
+    static ReductionKernels vector() {
+        if (!vectorAvailable()) {
+            throw new IllegalStateException("Run with --add-modules jdk.incubator.vector to use the vector kernels");
+        }
+        return VectorKernels.INSTANCE;
+    }
+
+    static boolean vectorAvailable() {
+        return ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+    }
+
+    static ReductionKernels defaults() {
+        String choice = System.getProperty("reduction.kernels", "auto").toLowerCase(Locale.ROOT);
+        return switch (choice) {
+            case "scalar" -> scalar();
+            case "vector" -> vector();
+            case "auto" -> vectorAvailable() ? VectorKernels.INSTANCE : ScalarKernels.INSTANCE;
+            default -> throw new IllegalArgumentException("Unknown reduction.kernels " + choice);
+        };
+    }
+}
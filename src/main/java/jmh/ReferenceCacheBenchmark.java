@@ -0,0 +1,79 @@
+package jmh;
+
+import gc.ReferenceCache;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoded-row lookups through a {@link ReferenceCache} while another thread churns through a 256mb live set on a
+ * 512mb heap. The cache could hold most of the keys, what the GC leaves of it is printed at the end of each
+ * trial: weak values are gone after every young collection, soft ones once the heap fills up, strong ones stay.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+@State(Scope.Group)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ReferenceCacheBenchmark {
+
+    private static final int KEYS = 20_000;
+    private static final int ROW_SIZE = 1024;
+    private static final int CHURN_SLOTS = 4096;
+    private static final int CHURN_SIZE = 64 * 1024;
+
+    @Param({"STRONG", "SOFT", "WEAK"})
+    ReferenceCache.Strength strength;
+
+    private ReferenceCache<Integer, byte[]> cache;
+    private byte[][] churn;
+    private int churnPos;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // room for 3/4 of the keys, so strong values only miss on the coldest ones
+        cache = new ReferenceCache<>(strength, (long) KEYS * 3 / 4 * ROW_SIZE, row -> row.length);
+        churn = new byte[CHURN_SLOTS][];
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.println();
+        System.out.println(cache);
+        cache.close();
+    }
+
+    // skewed towards the low keys, the hottest 10% of the keys get about a third of the lookups
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(2)
+    public byte[] lookup() {
+        double r = ThreadLocalRandom.current().nextDouble();
+        Integer key = (int) (r * r * KEYS);
+        byte[] row = cache.get(key);
+        if (row == null) {
+            row = decode(key);
+            cache.put(key, row);
+        }
+        return row;
+    }
+
+    private static byte[] decode(int key) {
+        byte[] row = new byte[ROW_SIZE];
+        for (int i = 0; i < row.length; i += 8) {
+            row[i] = (byte) (key + i);
+        }
+        return row;
+    }
+
+    @Benchmark
+    @Group("churn")
+    @GroupThreads(1)
+    public byte[] allocate() {
+        byte[] bytes = new byte[CHURN_SIZE];
+        churn[churnPos++ & (CHURN_SLOTS - 1)] = bytes;
+        return bytes;
+    }
+}
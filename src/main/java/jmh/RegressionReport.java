@@ -0,0 +1,134 @@
+package jmh;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares two JMH JSON result files benchmark by benchmark. A change only counts when it is larger than both
+ * the combined 99.9% confidence intervals of the two runs and the minimum relative change, so noisy benchmarks
+ * with wide intervals don't fail the build on their own.
+ */
+public class RegressionReport {
+
+    enum Verdict {
+        REGRESSION, IMPROVEMENT, UNCHANGED, INCONCLUSIVE, NEW, MISSING
+    }
+
+    record Comparison(String key, String unit, double baseline, double baselineError,
+                      double current, double currentError, double change, Verdict verdict) {
+    }
+
+    private final List<Comparison> comparisons;
+
+    private RegressionReport(List<Comparison> comparisons) {
+        this.comparisons = comparisons;
+    }
+
+    /**
+     * @param minRelativeChange e.g. 0.05 to ignore anything within 5% even when the intervals don't overlap
+     */
+    public static RegressionReport compare(JsonNode baseline, JsonNode current, double minRelativeChange) {
+        Map<String, JsonNode> before = index(baseline);
+        Map<String, JsonNode> after = index(current);
+        List<Comparison> comparisons = new ArrayList<>();
+        for (Map.Entry<String, JsonNode> entry : after.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode then = before.get(entry.getKey());
+            JsonNode metric = now.get("primaryMetric");
+            double score = metric.get("score").asDouble();
+            double error = error(metric);
+            String unit = metric.get("scoreUnit").asText();
+            if (then == null) {
+                comparisons.add(new Comparison(entry.getKey(), unit, Double.NaN, Double.NaN, score, error,
+                        Double.NaN, Verdict.NEW));
+                continue;
+            }
+            JsonNode previous = then.get("primaryMetric");
+            double baseScore = previous.get("score").asDouble();
+            double baseError = error(previous);
+            double change = baseScore == 0 ? Double.NaN : (score - baseScore) / baseScore;
+            Verdict verdict;
+            if (Double.isNaN(error) || Double.isNaN(baseError) || Double.isNaN(change)
+                    || !unit.equals(previous.get("scoreUnit").asText())) {
+                verdict = Verdict.INCONCLUSIVE;
+            } else if (Math.abs(score - baseScore) <= Math.sqrt(error * error + baseError * baseError)
+                    || Math.abs(change) < minRelativeChange) {
+                verdict = Verdict.UNCHANGED;
+            } else {
+                boolean higherIsBetter = "thrpt".equals(now.get("mode").asText());
+                verdict = (score > baseScore) == higherIsBetter ? Verdict.IMPROVEMENT : Verdict.REGRESSION;
+            }
+            comparisons.add(new Comparison(entry.getKey(), unit, baseScore, baseError, score, error, change, verdict));
+        }
+        for (String key : before.keySet()) {
+            if (!after.containsKey(key)) {
+                JsonNode metric = before.get(key).get("primaryMetric");
+                comparisons.add(new Comparison(key, metric.get("scoreUnit").asText(), metric.get("score").asDouble(),
+                        error(metric), Double.NaN, Double.NaN, Double.NaN, Verdict.MISSING));
+            }
+        }
+        return new RegressionReport(comparisons);
+    }
+
+    // JMH writes "NaN" for the error when there weren't enough iterations to compute one
+    private static double error(JsonNode metric) {
+        JsonNode error = metric.get("scoreError");
+        return error == null || !error.isNumber() ? Double.NaN : error.asDouble();
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            byKey.put(key(result), result);
+        }
+        return byKey;
+    }
+
+    private static String key(JsonNode result) {
+        StringBuilder key = new StringBuilder(result.get("benchmark").asText())
+                .append(" [").append(result.get("mode").asText()).append(']');
+        JsonNode params = result.get("params");
+        if (params != null) {
+            Map<String, String> sorted = new TreeMap<>();
+            for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                Map.Entry<String, JsonNode> param = it.next();
+                sorted.put(param.getKey(), param.getValue().asText());
+            }
+            key.append(' ').append(sorted);
+        }
+        return key.toString();
+    }
+
+    public boolean hasRegressions() {
+        return comparisons.stream().anyMatch(c -> c.verdict() == Verdict.REGRESSION);
+    }
+
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        Map<Verdict, Integer> counts = new TreeMap<>();
+        for (Comparison c : comparisons) {
+            counts.merge(c.verdict(), 1, Integer::sum);
+            out.append(String.format(Locale.ROOT, "%-12s %-80s %14s -> %14s %-10s %s%n",
+                    c.verdict(), c.key(), score(c.baseline(), c.baselineError()), score(c.current(), c.currentError()),
+                    c.unit(), Double.isNaN(c.change()) ? "" : String.format(Locale.ROOT, "%+.1f%%", c.change() * 100)));
+        }
+        out.append(counts).append(System.lineSeparator());
+        return out.toString();
+    }
+
+    private static String score(double score, double error) {
+        if (Double.isNaN(score)) {
+            return "-";
+        }
+        return Double.isNaN(error)
+                ? String.format(Locale.ROOT, "%.3f", score)
+                : String.format(Locale.ROOT, "%.3f +- %.3f", score, error);
+    }
+}
@@ -0,0 +1,237 @@
+package jmh;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses "userId:productId" row keys straight from their source into a reusable {@link View}.
+ * Nothing is allocated on the happy path, strings are only materialized when asked for.
+ */
+public final class RowKeyCodec {
+
+    static final byte DELIMITER = ':';
+
+    private RowKeyCodec() {
+    }
+
+    public static View parse(byte[] bytes, View into) {
+        return parse(bytes, 0, bytes.length, into);
+    }
+
+    public static View parse(byte[] bytes, int offset, int length, View into) {
+        if (!tryParse(bytes, offset, length, into)) {
+            throw new IllegalArgumentException("Invalid row key, expected exactly one delimiter");
+        }
+        return into;
+    }
+
+    public static View parse(ByteBuffer buffer, View into) {
+        if (!tryParse(buffer, into)) {
+            throw new IllegalArgumentException("Invalid row key, expected exactly one delimiter");
+        }
+        return into;
+    }
+
+    public static View parse(CharSequence chars, View into) {
+        if (!tryParse(chars, into)) {
+            throw new IllegalArgumentException("Invalid row key, expected exactly one delimiter");
+        }
+        return into;
+    }
+
+    public static boolean tryParse(byte[] bytes, int offset, int length, View into) {
+        int end = offset + length;
+        int delimiter = -1;
+        for (int i = offset; i < end; i++) {
+            if (bytes[i] == DELIMITER) {
+                if (delimiter >= 0) {
+                    return false;
+                }
+                delimiter = i;
+            }
+        }
+        if (delimiter < 0) {
+            return false;
+        }
+        into.reset(bytes, null, null, offset, delimiter, end);
+        return true;
+    }
+
+    /**
+     * Reads between {@code position()} and {@code limit()} without moving either.
+     */
+    public static boolean tryParse(ByteBuffer buffer, View into) {
+        int start = buffer.position();
+        int end = buffer.limit();
+        int delimiter = -1;
+        for (int i = start; i < end; i++) {
+            if (buffer.get(i) == DELIMITER) {
+                if (delimiter >= 0) {
+                    return false;
+                }
+                delimiter = i;
+            }
+        }
+        if (delimiter < 0) {
+            return false;
+        }
+        into.reset(null, buffer, null, start, delimiter, end);
+        return true;
+    }
+
+    public static boolean tryParse(CharSequence chars, View into) {
+        int end = chars.length();
+        int delimiter = -1;
+        for (int i = 0; i < end; i++) {
+            if (chars.charAt(i) == DELIMITER) {
+                if (delimiter >= 0) {
+                    return false;
+                }
+                delimiter = i;
+            }
+        }
+        if (delimiter < 0) {
+            return false;
+        }
+        into.reset(null, null, chars, 0, delimiter, end);
+        return true;
+    }
+
+    /**
+     * Flyweight over the parsed source. Only valid until the next parse into it or until the source changes.
+     * <p>
+     * Lengths and {@code ...At} work in source units, UTF-8 bytes for byte sources and chars otherwise. The
+     * {@code ...Equals} methods compare text, so they agree with {@link #userId()} and {@link #productId()}.
+     */
+    public static final class View {
+        private byte[] bytes;
+        private ByteBuffer buffer;
+        private CharSequence chars;
+        private int start;
+        private int delimiter;
+        private int end;
+
+        private void reset(byte[] bytes, ByteBuffer buffer, CharSequence chars, int start, int delimiter, int end) {
+            this.bytes = bytes;
+            this.buffer = buffer;
+            this.chars = chars;
+            this.start = start;
+            this.delimiter = delimiter;
+            this.end = end;
+        }
+
+        public int userIdLength() {
+            return delimiter - start;
+        }
+
+        public int productIdLength() {
+            return end - delimiter - 1;
+        }
+
+        public int userIdAt(int index) {
+            return at(start + index);
+        }
+
+        public int productIdAt(int index) {
+            return at(delimiter + 1 + index);
+        }
+
+        public boolean userIdEquals(CharSequence other) {
+            return regionEquals(start, delimiter, other);
+        }
+
+        public boolean productIdEquals(CharSequence other) {
+            return regionEquals(delimiter + 1, end, other);
+        }
+
+        public String userId() {
+            return materialize(start, delimiter);
+        }
+
+        public String productId() {
+            return materialize(delimiter + 1, end);
+        }
+
+        public SplitterBenchmark.RowKey toRowKey() {
+            return new SplitterBenchmark.RowKey(userId(), productId());
+        }
+
+        private int at(int index) {
+            if (bytes != null) {
+                return bytes[index] & 0xFF;
+            }
+            if (buffer != null) {
+                return buffer.get(index) & 0xFF;
+            }
+            return chars.charAt(index);
+        }
+
+        private boolean regionEquals(int from, int to, CharSequence other) {
+            if (chars != null) {
+                if (other.length() != to - from) {
+                    return false;
+                }
+                for (int i = from; i < to; i++) {
+                    if (chars.charAt(i) != other.charAt(i - from)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return utf8RegionEquals(from, to, other);
+        }
+
+        // encodes other on the fly and compares byte by byte, no String or byte[] per call
+        private boolean utf8RegionEquals(int from, int to, CharSequence other) {
+            int position = from;
+            for (int i = 0; i < other.length(); i++) {
+                int codePoint = other.charAt(i);
+                if (Character.isHighSurrogate((char) codePoint) && i + 1 < other.length()
+                        && Character.isLowSurrogate(other.charAt(i + 1))) {
+                    codePoint = Character.toCodePoint((char) codePoint, other.charAt(++i));
+                } else if (Character.isSurrogate((char) codePoint)) {
+                    // decoding never produces an unpaired surrogate, so the materialized string cannot match
+                    return false;
+                }
+                if (codePoint < 0x80) {
+                    if (position == to || at(position++) != codePoint) {
+                        return false;
+                    }
+                    continue;
+                }
+                int length = codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+                if (to - position < length) {
+                    return false;
+                }
+                int shift = 6 * (length - 1);
+                // 110xxxxx, 1110xxxx or 11110xxx, then 10xxxxxx for every following byte
+                if (at(position++) != ((codePoint >> shift) | (0xFF00 >> length) & 0xFF)) {
+                    return false;
+                }
+                while ((shift -= 6) >= 0) {
+                    if (at(position++) != (0x80 | (codePoint >> shift) & 0x3F)) {
+                        return false;
+                    }
+                }
+            }
+            return position == to;
+        }
+
+        private String materialize(int from, int to) {
+            if (bytes != null) {
+                return new String(bytes, from, to - from, StandardCharsets.UTF_8);
+            }
+            if (buffer != null) {
+                byte[] copy = new byte[to - from];
+                buffer.get(from, copy);
+                return new String(copy, StandardCharsets.UTF_8);
+            }
+            return chars.subSequence(from, to).toString();
+        }
+
+        @Override
+        public String toString() {
+            return materialize(start, end);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package jmh;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-ins for remote call latency, all centred around 10ms like the original {@code Thread.sleep(10)}.
+ */
+public enum SimulatedLatency {
+
+    FIXED {
+        @Override
+        public long nextNanos(ThreadLocalRandom random) {
+            return MEDIAN_NANOS;
+        }
+    },
+    UNIFORM {
+        @Override
+        public long nextNanos(ThreadLocalRandom random) {
+            return random.nextLong(MEDIAN_NANOS / 2, MEDIAN_NANOS * 3 / 2);
+        }
+    },
+    /**
+     * Log-normal with sigma 1, so p99 lands around 10x the median, capped at {@link #MAX_NANOS}.
+     */
+    LOG_NORMAL {
+        @Override
+        public long nextNanos(ThreadLocalRandom random) {
+            double nanos = MEDIAN_NANOS * Math.exp(random.nextGaussian());
+            return (long) Math.min(nanos, MAX_NANOS);
+        }
+    };
+
+    static final long MEDIAN_NANOS = 10_000_000L;
+    static final long MAX_NANOS = 1_000_000_000L;
+
+    public abstract long nextNanos(ThreadLocalRandom random);
+
+    public long nextNanos() {
+        return nextNanos(ThreadLocalRandom.current());
+    }
+
+    public static void sleepNanos(long nanos) {
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Sleeps for one sample of this distribution, the way a blocking remote call would.
+     */
+    public void await() {
+        sleepNanos(nextNanos());
+    }
+}
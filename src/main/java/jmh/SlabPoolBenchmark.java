@@ -0,0 +1,93 @@
+package jmh;
+
+import gc.GcPauseMonitor;
+import gc.SlabPool;
+import gc.WorkloadProfile;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation latency of {@code new byte[size]} against {@link SlabPool} leases over the {@code ObjectChurner} size
+ * mix (1 byte to 50mb), keeping the last {@code liveSet} buffers alive. GC pauses seen during each trial are
+ * printed at its end, run on G1 so the 1mb+ sizes are humongous.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-XX:+UseG1GC", "-Xms2g", "-Xmx2g", "-XX:MaxDirectMemorySize=2g"})
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class SlabPoolBenchmark {
+
+    @Param({"16", "256"})
+    int liveSet;
+
+    private int[] sizes;
+    private int next;
+    private byte[][] arrays;
+    private SlabPool.Lease[] leases;
+    private SlabPool pool;
+    private GcPauseMonitor pauses;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sizes = WorkloadProfile.defaults().sizes();
+        arrays = new byte[liveSet][];
+        leases = new SlabPool.Lease[liveSet];
+        pool = new SlabPool(64 << 20, 512L << 20);
+        pauses = new GcPauseMonitor();
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        long[] sorted = pauses.drain();
+        long total = 0;
+        for (long pause : sorted) {
+            total += pause;
+        }
+        System.out.printf("%nGC: %d pauses, total %d ms, p99 %d ms, max %d ms%n", sorted.length, total,
+                GcPauseMonitor.percentile(sorted, 99), sorted.length == 0 ? 0 : sorted[sorted.length - 1]);
+        if (pool.hits() + pool.misses() > 0) {
+            System.out.println("pool: " + pool);
+        }
+        for (SlabPool.Lease lease : leases) {
+            if (lease != null) {
+                lease.release();
+            }
+        }
+        pauses.close();
+    }
+
+    private int nextSize() {
+        int size = sizes[next];
+        next = next + 1 == sizes.length ? 0 : next + 1;
+        return size;
+    }
+
+    @Benchmark
+    public byte[] heapArray() {
+        int size = nextSize();
+        byte[] bytes = new byte[size];
+        if (size > 0) {
+            bytes[size - 1] = 1;
+        }
+        arrays[next % liveSet] = bytes;
+        return bytes;
+    }
+
+    @Benchmark
+    public SlabPool.Lease pooledDirect() {
+        int size = nextSize();
+        SlabPool.Lease lease = pool.acquire(size);
+        if (size > 0) {
+            lease.buffer().put(size - 1, (byte) 1);
+        }
+        int slot = next % liveSet;
+        if (leases[slot] != null) {
+            leases[slot].release();
+        }
+        leases[slot] = lease;
+        return lease;
+    }
+}
@@ -0,0 +1,252 @@
+package jmh;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Immutable sorted map from binary keys, typically {@link OrderedKey}s, to longs, in a file that is memory-mapped
+ * for reading. Lookups binary search the mapped keys in place, eight bytes at a time, and range or prefix scans
+ * come back as index ranges to walk, so no key is ever copied or decoded.
+ * <p>
+ * Layout: all key bytes back to back, then the end offset of every key as an int, then the values, then a footer
+ * of key count, key bytes length and a magic number. One mapping limits the file to 2gb.
+ */
+public final class SortedKeyIndex {
+
+    private static final int MAGIC = 0x534B4931;
+    private static final int FOOTER_BYTES = Integer.BYTES * 3;
+
+    private final MappedByteBuffer file;
+    private final int count;
+    private final int offsetsStart;
+    private final int valuesStart;
+
+    private SortedKeyIndex(MappedByteBuffer file) {
+        this.file = file;
+        int footer = file.capacity() - FOOTER_BYTES;
+        if (footer < 0 || file.getInt(footer + 2 * Integer.BYTES) != MAGIC) {
+            throw new IllegalArgumentException("Not a sorted key index");
+        }
+        this.count = file.getInt(footer);
+        this.offsetsStart = file.getInt(footer + Integer.BYTES);
+        this.valuesStart = offsetsStart + count * Integer.BYTES;
+        if (valuesStart + (long) count * Long.BYTES != footer) {
+            throw new IllegalArgumentException("Truncated sorted key index");
+        }
+    }
+
+    public static SortedKeyIndex open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(path + " is larger than one mapping");
+            }
+            return new SortedKeyIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    public static Writer writer(Path path) throws IOException {
+        return new Writer(Files.newOutputStream(path));
+    }
+
+    public int size() {
+        return count;
+    }
+
+    private int keyStart(int index) {
+        return index == 0 ? 0 : file.getInt(offsetsStart + (index - 1) * Integer.BYTES);
+    }
+
+    private int keyEnd(int index) {
+        return file.getInt(offsetsStart + index * Integer.BYTES);
+    }
+
+    public int keyLength(int index) {
+        return keyEnd(index) - keyStart(index);
+    }
+
+    public long value(int index) {
+        return file.getLong(valuesStart + index * Long.BYTES);
+    }
+
+    /**
+     * @return bytes written, copies {@code min(keyLength(index), into.length - offset)} bytes at most
+     */
+    public int copyKey(int index, byte[] into, int offset) {
+        int start = keyStart(index);
+        int length = Math.min(keyEnd(index) - start, into.length - offset);
+        file.get(start, into, offset, length);
+        return length;
+    }
+
+    public byte[] key(int index) {
+        byte[] key = new byte[keyLength(index)];
+        copyKey(index, key, 0);
+        return key;
+    }
+
+    /**
+     * @return the index of the key, or {@code -(insertion point) - 1} like {@code Arrays.binarySearch}
+     */
+    public int find(byte[] key, int offset, int length) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(mid, key, offset, length, false);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    public int find(OrderedKey key) {
+        return find(key.buffer(), 0, key.length());
+    }
+
+    /**
+     * @return the value of the key, or {@code missing}
+     */
+    public long get(OrderedKey key, long missing) {
+        int index = find(key);
+        return index < 0 ? missing : value(index);
+    }
+
+    /**
+     * @return first index whose key is at least the given one, {@link #size()} if there is none
+     */
+    public int ceiling(byte[] key, int offset, int length) {
+        return bound(key, offset, length, false);
+    }
+
+    /**
+     * Keys starting with the prefix are {@code [prefixStart, prefixEnd)}, empty when both are equal.
+     */
+    public int prefixStart(OrderedKey prefix) {
+        return bound(prefix.buffer(), 0, prefix.length(), false);
+    }
+
+    public int prefixEnd(OrderedKey prefix) {
+        return bound(prefix.buffer(), 0, prefix.length(), true);
+    }
+
+    // first index whose key is >= probe, or whose key truncated to the probe length is > probe when prefix is set
+    private int bound(byte[] probe, int offset, int length, boolean prefix) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compare(mid, probe, offset, length, prefix);
+            if (cmp < 0 || (prefix && cmp == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // key at index against probe, unsigned; with prefix only the first probe length bytes of the key count
+    private int compare(int index, byte[] probe, int offset, int length, boolean prefix) {
+        int start = keyStart(index);
+        int keyLength = keyEnd(index) - start;
+        if (prefix) {
+            keyLength = Math.min(keyLength, length);
+        }
+        int common = Math.min(keyLength, length);
+        int i = 0;
+        for (; i + Long.BYTES <= common; i += Long.BYTES) {
+            long a = file.getLong(start + i);
+            long b = Bytes.toLong(probe, offset + i);
+            if (a != b) {
+                return Long.compareUnsigned(a, b);
+            }
+        }
+        for (; i < common; i++) {
+            int a = file.get(start + i) & 0xFF;
+            int b = probe[offset + i] & 0xFF;
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return keyLength - length;
+    }
+
+    /**
+     * Keys must be added in strictly ascending unsigned byte order.
+     */
+    public static final class Writer implements AutoCloseable {
+        private final DataOutputStream out;
+        private final IntList ends = new IntList(1024);
+        private final LongList values = new LongList(1024);
+        private byte[] last = new byte[0];
+        private int lastLength = -1;
+        private long written;
+
+        private Writer(OutputStream out) {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, 1 << 16));
+        }
+
+        public Writer add(OrderedKey key, long value) throws IOException {
+            return add(key.buffer(), 0, key.length(), value);
+        }
+
+        public Writer add(byte[] key, int offset, int length, long value) throws IOException {
+            if (lastLength >= 0 && Bytes.compareTo(last, 0, lastLength, key, offset, length) >= 0) {
+                throw new IllegalArgumentException("Keys out of order at entry " + ends.size());
+            }
+            written += length;
+            if (written + (long) (ends.size() + 1) * (Integer.BYTES + Long.BYTES) + FOOTER_BYTES > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Index would exceed 2gb");
+            }
+            out.write(key, offset, length);
+            ends.add((int) written);
+            values.add(value);
+            if (last.length < length) {
+                last = new byte[Math.max(length, last.length * 2)];
+            }
+            System.arraycopy(key, offset, last, 0, length);
+            lastLength = length;
+            return this;
+        }
+
+        @Override
+        public void close() throws IOException {
+            ByteBuffer chunk = ByteBuffer.allocate(1 << 16);
+            for (int i = 0; i < ends.size(); i++) {
+                if (chunk.remaining() < Integer.BYTES) {
+                    flush(chunk);
+                }
+                chunk.putInt(ends.get(i));
+            }
+            for (int i = 0; i < values.size(); i++) {
+                if (chunk.remaining() < Long.BYTES) {
+                    flush(chunk);
+                }
+                chunk.putLong(values.get(i));
+            }
+            flush(chunk);
+            out.writeInt(ends.size());
+            out.writeInt((int) written);
+            out.writeInt(MAGIC);
+            out.close();
+        }
+
+        private void flush(ByteBuffer chunk) throws IOException {
+            out.write(chunk.array(), 0, chunk.position());
+            chunk.clear();
+        }
+    }
+}
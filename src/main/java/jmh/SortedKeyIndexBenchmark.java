@@ -0,0 +1,110 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point lookups and per-user prefix scans over {@code (userId, productId)} keys, 100 products per user: a
+ * memory-mapped {@link SortedKeyIndex} of {@link OrderedKey}s against a {@code TreeMap} of the
+ * {@code "userId:productId"} strings {@link SplitterBenchmark} parses. Both build their key per call.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class SortedKeyIndexBenchmark {
+
+    private static final int PRODUCTS_PER_USER = 100;
+
+    @Param({"1000000", "10000000"})
+    private int keys;
+
+    private String[] users;
+    private TreeMap<String, Long> treeMap;
+    private Path file;
+    private SortedKeyIndex index;
+
+    @State(Scope.Thread)
+    public static class Probe {
+        final OrderedKey key = new OrderedKey();
+        final SplittableRandom random = new SplittableRandom(42);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        int userCount = keys / PRODUCTS_PER_USER;
+        users = new String[userCount];
+        for (int i = 0; i < userCount; i++) {
+            users[i] = "user" + i;
+        }
+        // the writer wants them in key order, which for ASCII user ids is string order
+        String[] sorted = users.clone();
+        Arrays.sort(sorted);
+        file = Files.createTempFile("sorted-key-index", ".bin");
+        treeMap = new TreeMap<>();
+        OrderedKey key = new OrderedKey();
+        long row = 0;
+        try (SortedKeyIndex.Writer writer = SortedKeyIndex.writer(file)) {
+            for (String user : sorted) {
+                for (long product = 0; product < PRODUCTS_PER_USER; product++, row++) {
+                    writer.add(key.reset().addString(user).addLong(product), row);
+                    treeMap.put(user + ":" + product, row);
+                }
+            }
+        }
+        index = SortedKeyIndex.open(file);
+        System.out.printf("%nindex file %d bytes for %d keys%n", Files.size(file), index.size());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long treeMapGet(Probe probe) {
+        String user = users[probe.random.nextInt(users.length)];
+        Long value = treeMap.get(user + ":" + probe.random.nextInt(PRODUCTS_PER_USER));
+        return value == null ? -1 : value;
+    }
+
+    @Benchmark
+    public long indexGet(Probe probe) {
+        String user = users[probe.random.nextInt(users.length)];
+        return index.get(probe.key.reset().addString(user).addLong(probe.random.nextInt(PRODUCTS_PER_USER)), -1);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS_PER_USER)
+    public long treeMapPrefixScan(Probe probe) {
+        String user = users[probe.random.nextInt(users.length)];
+        long sum = 0;
+        // ';' follows ':', the delimiter
+        for (Map.Entry<String, Long> entry : treeMap.subMap(user + ":", user + ";").entrySet()) {
+            sum += entry.getValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PRODUCTS_PER_USER)
+    public long indexPrefixScan(Probe probe) {
+        String user = users[probe.random.nextInt(users.length)];
+        OrderedKey prefix = probe.key.reset().addString(user);
+        long sum = 0;
+        for (int i = index.prefixStart(prefix), end = index.prefixEnd(prefix); i < end; i++) {
+            sum += index.value(i);
+        }
+        return sum;
+    }
+}
@@ -2,7 +2,13 @@ package jmh;
 
 import com.google.common.base.Splitter;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -19,6 +25,25 @@ public class SplitterBenchmark {
     @Param({"0a_userId:productIdt1", "3x_userId:productIdt0"})
     private String input;
 
+    private byte[] inputBytes;
+    private ByteBuffer inputBuffer;
+    private final RowKeyCodec.View view = new RowKeyCodec.View();
+
+    // bytes/op is the number to watch here, same as running with -prof gc
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SplitterBenchmark.class.getSimpleName())
+                .mode(Mode.AverageTime)
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        inputBytes = input.getBytes(StandardCharsets.UTF_8);
+        inputBuffer = ByteBuffer.allocateDirect(inputBytes.length).put(inputBytes).flip();
+    }
+
     @Benchmark
     public RowKey guavaSplitter() {
         List<String> list = Splitter.on(ROWKEY_DELIMITER).splitToList(input);
@@ -37,6 +62,26 @@ public class SplitterBenchmark {
         return new RowKey(list[0], list[1]);
     }
 
+    @Benchmark
+    public RowKey codecMaterialized() {
+        return RowKeyCodec.parse(input, view).toRowKey();
+    }
+
+    @Benchmark
+    public RowKeyCodec.View codecCharSequence() {
+        return RowKeyCodec.parse(input, view);
+    }
+
+    @Benchmark
+    public RowKeyCodec.View codecBytes() {
+        return RowKeyCodec.parse(inputBytes, view);
+    }
+
+    @Benchmark
+    public RowKeyCodec.View codecByteBuffer() {
+        return RowKeyCodec.parse(inputBuffer, view);
+    }
+
     static class RowKey {
 
         private String userId;
@@ -47,4 +92,4 @@ public class SplitterBenchmark {
             this.productId = productId;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,84 @@
+package jmh;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A sum spread over a fixed number of padded cells, picked by thread id. Unlike {@code LongAdder} there is no base
+ * field, no growing cell table and no rehashing on a failed CAS: the cells are all there from the start and two
+ * threads landing on the same one simply share it.
+ * <p>
+ * {@link FalseSharing#main} prints the {@link Cell} layout with JOL and checks the padding really keeps
+ * neighbouring values apart.
+ */
+public final class StripedCounter {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(Value.class, "value", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final Cell[] cells;
+
+    public StripedCounter() {
+        this(Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    public StripedCounter(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("At least one stripe is required");
+        }
+        int size = Integer.highestOneBit(stripes);
+        cells = new Cell[size < stripes ? size << 1 : size];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new Cell();
+        }
+    }
+
+    public void add(long delta) {
+        // Fibonacci hashing, consecutive thread ids land far apart
+        int index = (int) ((Thread.currentThread().threadId() * 0x9E3779B97F4A7C15L) >>> 32) & (cells.length - 1);
+        VALUE.getAndAdd(cells[index], delta);
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    /**
+     * Not a snapshot, adds made while summing may or may not be counted, like {@code LongAdder.sum()}.
+     */
+    public long sum() {
+        long sum = 0;
+        for (Cell cell : cells) {
+            sum += (long) VALUE.getVolatile(cell);
+        }
+        return sum;
+    }
+
+    public int stripes() {
+        return cells.length;
+    }
+
+    // the JVM may reorder fields within a class but never moves them across the hierarchy, so padding by
+    // inheritance is the only kind that survives; header plus 7 longs on the left, 15 longs on the right puts
+    // neighbouring cells' values 200 bytes apart, clear of the adjacent line the prefetcher pulls in with each one
+    @SuppressWarnings("unused")
+    static class LeftPadding {
+        long p01, p02, p03, p04, p05, p06, p07;
+    }
+
+    static class Value extends LeftPadding {
+        volatile long value;
+    }
+
+    @SuppressWarnings("unused")
+    static final class Cell extends Value {
+        long p11, p12, p13, p14, p15, p16, p17, p18, p19, p20, p21, p22, p23, p24, p25;
+    }
+}
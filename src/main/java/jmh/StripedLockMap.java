@@ -0,0 +1,102 @@
+package jmh;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+
+/**
+ * A map split into {@code HashMap} segments, each behind its own lock, the way {@code ConcurrentHashMap} was built
+ * before Java 8. Reads take the lock too, which is the price of plain segments and what the comparison is about.
+ * Like {@code ConcurrentHashMap} it takes no null keys.
+ */
+public final class StripedLockMap<K, V> {
+
+    private final Segment<K, V>[] segments;
+
+    public StripedLockMap() {
+        this(Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public StripedLockMap(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("At least one stripe is required");
+        }
+        int size = Integer.highestOneBit(stripes);
+        segments = new Segment[size < stripes ? size << 1 : size];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = new Segment<>();
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        if (key == null) {
+            throw new IllegalArgumentException("Null keys are not supported");
+        }
+        int h = key.hashCode();
+        // HashMap uses the low bits inside the segment, pick the segment from the spread high ones
+        return segments[((h ^ (h >>> 16)) * 0x9E3779B9 >>> 16) & (segments.length - 1)];
+    }
+
+    public V get(Object key) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            return segment.map.get(key);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public V put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            return segment.map.put(key, value);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remapping) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            return segment.map.merge(key, value, remapping);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public V compute(K key, BiFunction<? super K, ? super V, ? extends V> remapping) {
+        Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            return segment.map.compute(key, remapping);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /**
+     * Locks one segment at a time, so not a snapshot under concurrent updates.
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    private static final class Segment<K, V> {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<K, V> map = new HashMap<>();
+    }
+}
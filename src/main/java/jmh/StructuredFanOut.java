@@ -0,0 +1,146 @@
+package jmh;
+
+import gc.LatencyRecorder;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Fan-out of {@code width} simulated remote calls, waiting either for all of them or for the first one.
+ * Virtual-thread strategies get a thread per subtask, {@code CompletableFuture} runs on a fixed platform pool.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "--enable-preview")
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+public class StructuredFanOut {
+
+    private static final int PLATFORM_POOL_SIZE = 256;
+
+    @Param({"3", "100", "1000", "10000"})
+    private int width;
+
+    @Param({"FIXED", "UNIFORM", "LOG_NORMAL"})
+    private SimulatedLatency latency;
+
+    private List<Callable<String>> calls;
+    private ExecutorService platformPool;
+    private LatencyRecorder subtasks;
+
+    // percentiles come with SampleTime, bytes/op with the GC profiler
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(StructuredFanOut.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+    @Setup
+    public void setup() {
+        calls = new ArrayList<>(width);
+        subtasks = new LatencyRecorder();
+        for (int i = 0; i < width; i++) {
+            String result = "replica-" + i;
+            calls.add(() -> {
+                long start = System.nanoTime();
+                latency.await();
+                // subtasks run on short-lived virtual threads, so through the shared stripes
+                subtasks.recordSince(start);
+                return result;
+            });
+        }
+        platformPool = Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        platformPool.shutdownNow();
+        // cancelled losers never record, what is left is how long the completed subtasks took
+        System.out.printf("%nsubtasks: %s%n", subtasks.totalSnapshot().format(TimeUnit.MILLISECONDS));
+    }
+
+    @Benchmark
+    public String scopeOnSuccess() throws InterruptedException, ExecutionException {
+        try (var scope = new StructuredTaskScope.ShutdownOnSuccess<String>()) {
+            for (Callable<String> call : calls) {
+                scope.fork(call);
+            }
+            scope.join();
+            return scope.result();
+        }
+    }
+
+    @Benchmark
+    public int scopeOnFailure() throws InterruptedException, ExecutionException {
+        try (var scope = new StructuredTaskScope.ShutdownOnFailure()) {
+            List<StructuredTaskScope.Subtask<String>> subtasks = new ArrayList<>(width);
+            for (Callable<String> call : calls) {
+                subtasks.add(scope.fork(call));
+            }
+            scope.join();
+            scope.throwIfFailed();
+            return subtasks.size();
+        }
+    }
+
+    @Benchmark
+    public int completableFutureAllOf() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[width];
+        for (int i = 0; i < width; i++) {
+            futures[i] = CompletableFuture.supplyAsync(unchecked(calls.get(i)), platformPool);
+        }
+        CompletableFuture.allOf(futures).join();
+        return futures.length;
+    }
+
+    @Benchmark
+    public Object completableFutureAnyOf() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[width];
+        for (int i = 0; i < width; i++) {
+            futures[i] = CompletableFuture.supplyAsync(unchecked(calls.get(i)), platformPool);
+        }
+        Object result = CompletableFuture.anyOf(futures).join();
+        // cancelling only stops the ones still queued, running ones keep their pool thread until they finish
+        for (CompletableFuture<?> future : futures) {
+            future.cancel(true);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int virtualInvokeAll() throws InterruptedException, ExecutionException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<String>> futures = executor.invokeAll(calls);
+            for (Future<String> future : futures) {
+                future.get();
+            }
+            return futures.size();
+        }
+    }
+
+    @Benchmark
+    public String virtualInvokeAny() throws InterruptedException, ExecutionException {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            return executor.invokeAny(calls);
+        }
+    }
+
+    private static <T> Supplier<T> unchecked(Callable<T> callable) {
+        return () -> {
+            try {
+                return callable.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        };
+    }
+}
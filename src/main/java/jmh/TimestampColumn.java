@@ -0,0 +1,431 @@
+package jmh;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Append-only column of epoch-millis timestamps, or any longs, stored in blocks of {@value #BLOCK_SIZE} values:
+ * the first value, then the deltas between neighbours minus the block's smallest delta, bit-packed at the width
+ * the largest one needs. Monotonic event times a few milliseconds apart take one or two bytes each instead of eight.
+ * Out-of-order values still work, they just pack wider.
+ * <p>
+ * Reading maps the file and keeps the block index, min and max of every block, on heap, so time-range queries
+ * skip blocks that can't match and count blocks that match entirely without decoding them. One mapping limits
+ * the file to 2gb.
+ * <p>
+ * Layout: packed blocks, then per block {@code min, max, offset, count, bit width}, then a footer of index offset,
+ * block count and a magic number. Appending reopens the file, drops the footer and re-packs the last partial block.
+ */
+public final class TimestampColumn {
+
+    public static final int BLOCK_SIZE = 1024;
+
+    private static final int MAGIC = 0x54534331;
+    private static final int BLOCK_HEADER_BYTES = 2 * Long.BYTES;
+    private static final int INDEX_ENTRY_BYTES = 3 * Long.BYTES + 2 * Integer.BYTES;
+    private static final int FOOTER_BYTES = Long.BYTES + 2 * Integer.BYTES;
+
+    private final MappedByteBuffer file;
+    private final long[] mins;
+    private final long[] maxes;
+    private final int[] offsets;
+    private final int[] counts;
+    private final int[] widths;
+    private final long size;
+    // no block overlaps the next one, so range queries can binary search for their first block and stop early
+    private final boolean ordered;
+
+    private TimestampColumn(MappedByteBuffer file, Index index) {
+        this.file = file;
+        this.mins = index.mins;
+        this.maxes = index.maxes;
+        this.offsets = Arrays.stream(index.offsets).mapToInt(Math::toIntExact).toArray();
+        this.counts = index.counts;
+        this.widths = index.widths;
+        long size = 0;
+        for (int count : counts) {
+            size += count;
+        }
+        this.size = size;
+        boolean ordered = true;
+        for (int i = 1; i < counts.length && ordered; i++) {
+            ordered = maxes[i - 1] <= mins[i];
+        }
+        this.ordered = ordered;
+    }
+
+    public static TimestampColumn open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(path + " is larger than one mapping");
+            }
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new TimestampColumn(file, Index.read(file, file.capacity()));
+        }
+    }
+
+    /**
+     * Starts a new column, replacing whatever is at {@code path}.
+     */
+    public static Writer create(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        return new Writer(channel, new Index(0), 0);
+    }
+
+    /**
+     * Continues an existing column, or starts one if there is no file.
+     */
+    public static Writer append(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return create(path);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            Index index = Index.read(file, file.capacity());
+            int blocks = index.blocks;
+            long end = index.dataEnd;
+            long[] partial = null;
+            if (blocks > 0 && index.counts[blocks - 1] < BLOCK_SIZE) {
+                blocks--;
+                partial = new long[BLOCK_SIZE];
+                decode(file, (int) index.offsets[blocks], index.counts[blocks], index.widths[blocks], partial);
+                partial = Arrays.copyOf(partial, index.counts[blocks]);
+                end = index.offsets[blocks];
+            }
+            index.blocks = blocks;
+            channel.truncate(end);
+            channel.position(end);
+            Writer writer = new Writer(channel, index, end);
+            if (partial != null) {
+                for (long value : partial) {
+                    writer.add(value);
+                }
+            }
+            return writer;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public int blockCount() {
+        return counts.length;
+    }
+
+    /**
+     * @return bytes the mapped file takes, index and footer included
+     */
+    public long fileBytes() {
+        return file.capacity();
+    }
+
+    /**
+     * @return how many values fall in {@code [from, to)}
+     */
+    public long countBetween(long from, long to) {
+        long count = 0;
+        long[] batch = null;
+        for (int block = firstBlock(from); block < counts.length; block++) {
+            if (ordered && mins[block] >= to) {
+                break;
+            }
+            if (maxes[block] < from || mins[block] >= to) {
+                continue;
+            }
+            if (mins[block] >= from && maxes[block] < to) {
+                count += counts[block];
+                continue;
+            }
+            if (batch == null) {
+                batch = new long[BLOCK_SIZE];
+            }
+            int length = decode(file, offsets[block], counts[block], widths[block], batch);
+            for (int i = 0; i < length; i++) {
+                if (batch[i] >= from && batch[i] < to) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private int firstBlock(long from) {
+        if (!ordered) {
+            return 0;
+        }
+        int low = 0;
+        int high = counts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (maxes[mid] < from) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Decodes every value, one block per {@link Batches#next()}, into {@code batch}.
+     *
+     * @param batch at least {@value #BLOCK_SIZE} long, reused for every block
+     */
+    public Batches batches(long[] batch) {
+        return new Batches(batch, Long.MIN_VALUE, Long.MAX_VALUE, false);
+    }
+
+    /**
+     * Only the values in {@code [from, to)}, skipping blocks by their min and max.
+     */
+    public Batches batches(long[] batch, long from, long to) {
+        return new Batches(batch, from, to, true);
+    }
+
+    public final class Batches {
+        private final long[] batch;
+        private final long from;
+        private final long to;
+        private final boolean filter;
+        private int block;
+        private int length;
+
+        private Batches(long[] batch, long from, long to, boolean filter) {
+            if (batch.length < BLOCK_SIZE) {
+                throw new IllegalArgumentException("Batch must hold at least " + BLOCK_SIZE + " values");
+            }
+            this.batch = batch;
+            this.from = from;
+            this.to = to;
+            this.filter = filter;
+            this.block = filter ? firstBlock(from) : 0;
+        }
+
+        /**
+         * @return false once every block has been decoded
+         */
+        public boolean next() {
+            while (block < counts.length) {
+                int current = block++;
+                if (filter && ordered && mins[current] >= to) {
+                    block = counts.length;
+                    break;
+                }
+                if (filter && (maxes[current] < from || mins[current] >= to)) {
+                    continue;
+                }
+                length = decode(file, offsets[current], counts[current], widths[current], batch);
+                if (filter && (mins[current] < from || maxes[current] >= to)) {
+                    int kept = 0;
+                    for (int i = 0; i < length; i++) {
+                        long value = batch[i];
+                        if (value >= from && value < to) {
+                            batch[kept++] = value;
+                        }
+                    }
+                    length = kept;
+                }
+                if (length > 0) {
+                    return true;
+                }
+            }
+            length = 0;
+            return false;
+        }
+
+        public long[] values() {
+            return batch;
+        }
+
+        /**
+         * @return how many values of {@link #values()} belong to the current batch
+         */
+        public int length() {
+            return length;
+        }
+    }
+
+    private static int decode(ByteBuffer file, int offset, int count, int width, long[] into) {
+        long value = file.getLong(offset);
+        long minDelta = file.getLong(offset + Long.BYTES);
+        int words = offset + BLOCK_HEADER_BYTES;
+        long mask = width == 64 ? -1L : (1L << width) - 1;
+        into[0] = value;
+        for (int i = 1; i < count; i++) {
+            long packed = 0;
+            if (width > 0) {
+                long bit = (long) (i - 1) * width;
+                int word = (int) (bit >>> 6);
+                int shift = (int) (bit & 63);
+                packed = file.getLong(words + word * Long.BYTES) >>> shift;
+                if (shift + width > 64) {
+                    packed |= file.getLong(words + (word + 1) * Long.BYTES) << (64 - shift);
+                }
+                packed &= mask;
+            }
+            value += minDelta + packed;
+            into[i] = value;
+        }
+        return count;
+    }
+
+    private static final class Index {
+        long[] mins;
+        long[] maxes;
+        long[] offsets;
+        int[] counts;
+        int[] widths;
+        int blocks;
+        long dataEnd;
+
+        private Index(int capacity) {
+            mins = new long[capacity];
+            maxes = new long[capacity];
+            offsets = new long[capacity];
+            counts = new int[capacity];
+            widths = new int[capacity];
+        }
+
+        static Index read(ByteBuffer file, int length) {
+            int footer = length - FOOTER_BYTES;
+            if (footer < 0 || file.getInt(footer + Long.BYTES + Integer.BYTES) != MAGIC) {
+                throw new IllegalArgumentException("Not a timestamp column");
+            }
+            int start = Math.toIntExact(file.getLong(footer));
+            int blocks = file.getInt(footer + Long.BYTES);
+            if (start + (long) blocks * INDEX_ENTRY_BYTES != footer) {
+                throw new IllegalArgumentException("Truncated timestamp column");
+            }
+            Index index = new Index(blocks);
+            for (int i = 0, pos = start; i < blocks; i++, pos += INDEX_ENTRY_BYTES) {
+                index.mins[i] = file.getLong(pos);
+                index.maxes[i] = file.getLong(pos + Long.BYTES);
+                index.offsets[i] = file.getLong(pos + 2 * Long.BYTES);
+                index.counts[i] = file.getInt(pos + 3 * Long.BYTES);
+                index.widths[i] = file.getInt(pos + 3 * Long.BYTES + Integer.BYTES);
+            }
+            index.blocks = blocks;
+            index.dataEnd = start;
+            return index;
+        }
+
+        void add(long min, long max, long offset, int count, int width) {
+            if (blocks == counts.length) {
+                int capacity = Math.max(16, blocks * 2);
+                mins = Arrays.copyOf(mins, capacity);
+                maxes = Arrays.copyOf(maxes, capacity);
+                offsets = Arrays.copyOf(offsets, capacity);
+                counts = Arrays.copyOf(counts, capacity);
+                widths = Arrays.copyOf(widths, capacity);
+            }
+            mins[blocks] = min;
+            maxes[blocks] = max;
+            offsets[blocks] = offset;
+            counts[blocks] = count;
+            widths[blocks] = width;
+            blocks++;
+        }
+    }
+
+    public static final class Writer implements AutoCloseable {
+        private final FileChannel channel;
+        private final Index index;
+        private final long[] pending = new long[BLOCK_SIZE];
+        private final ByteBuffer block = ByteBuffer.allocate(BLOCK_HEADER_BYTES + BLOCK_SIZE * Long.BYTES);
+        private int pendingCount;
+        private long position;
+
+        private Writer(FileChannel channel, Index index, long position) {
+            this.channel = channel;
+            this.index = index;
+            this.position = position;
+        }
+
+        public Writer add(long value) throws IOException {
+            pending[pendingCount++] = value;
+            if (pendingCount == BLOCK_SIZE) {
+                flushBlock();
+            }
+            return this;
+        }
+
+        // deltas are taken modulo 2^64, so they and their offset from minDelta are exact whatever the values
+        private void flushBlock() throws IOException {
+            int count = pendingCount;
+            long min = pending[0];
+            long max = pending[0];
+            long minDelta = Long.MAX_VALUE;
+            for (int i = 1; i < count; i++) {
+                min = Math.min(min, pending[i]);
+                max = Math.max(max, pending[i]);
+                minDelta = Math.min(minDelta, pending[i] - pending[i - 1]);
+            }
+            if (count == 1) {
+                minDelta = 0;
+            }
+            long widest = 0;
+            for (int i = 1; i < count; i++) {
+                widest |= pending[i] - pending[i - 1] - minDelta;
+            }
+            int width = 64 - Long.numberOfLeadingZeros(widest);
+
+            block.clear();
+            block.putLong(pending[0]).putLong(minDelta);
+            long word = 0;
+            int used = 0;
+            for (int i = 1; i < count && width > 0; i++) {
+                long packed = pending[i] - pending[i - 1] - minDelta;
+                word |= packed << used;
+                used += width;
+                if (used >= 64) {
+                    block.putLong(word);
+                    used -= 64;
+                    word = used == 0 ? 0 : packed >>> (width - used);
+                }
+            }
+            if (used > 0) {
+                block.putLong(word);
+            }
+            block.flip();
+            index.add(min, max, position, count, width);
+            while (block.hasRemaining()) {
+                position += channel.write(block, position);
+            }
+            pendingCount = 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (pendingCount > 0) {
+                    flushBlock();
+                }
+                ByteBuffer tail = ByteBuffer.allocate(index.blocks * INDEX_ENTRY_BYTES + FOOTER_BYTES);
+                for (int i = 0; i < index.blocks; i++) {
+                    tail.putLong(index.mins[i]).putLong(index.maxes[i]).putLong(index.offsets[i])
+                            .putInt(index.counts[i]).putInt(index.widths[i]);
+                }
+                tail.putLong(position).putInt(index.blocks).putInt(MAGIC);
+                tail.flip();
+                while (tail.hasRemaining()) {
+                    position += channel.write(tail, position);
+                }
+                channel.truncate(position);
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package jmh;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event times 0 to 50ms apart starting at the {@link BytesToLongConversion} timestamps, held in a
+ * {@link TimestampColumn} against a {@code long[]} and an {@code ArrayList<Long>}: a full scan, and counting the
+ * values in a random 1% window, the column through its block index, the others by binary search. Bytes per value
+ * of each are printed at setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class TimestampColumnBenchmark {
+
+    private static final long FIRST = 1597064529541L;
+
+    @Param({"1000000", "10000000"})
+    private int count;
+
+    private long[] array;
+    private List<Long> list;
+    private Path file;
+    private TimestampColumn column;
+    private long window;
+
+    @State(Scope.Thread)
+    public static class Query {
+        final long[] batch = new long[TimestampColumn.BLOCK_SIZE];
+        final SplittableRandom random = new SplittableRandom(7);
+    }
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        SplittableRandom random = new SplittableRandom(0);
+        array = new long[count];
+        list = new ArrayList<>(count);
+        file = Files.createTempFile("timestamps", ".col");
+        long timestamp = FIRST;
+        try (TimestampColumn.Writer writer = TimestampColumn.create(file)) {
+            for (int i = 0; i < count; i++) {
+                timestamp += random.nextInt(51);
+                array[i] = timestamp;
+                list.add(timestamp);
+                writer.add(timestamp);
+            }
+        }
+        column = TimestampColumn.open(file);
+        window = (array[count - 1] - FIRST) / 100;
+        // JOL walks the graph one object at a time, a sample is enough for a per value figure
+        double listBytes = GraphLayout.parseInstance(new ArrayList<>(list.subList(0, 10_000))).totalSize() / 10_000.0;
+        System.out.printf("%nbytes per value: column %.2f, long[] %.2f, ArrayList<Long> %.2f%n",
+                (double) column.fileBytes() / count, (double) GraphLayout.parseInstance(array).totalSize() / count,
+                listBytes);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long scanColumn(Query query) {
+        long sum = 0;
+        TimestampColumn.Batches batches = column.batches(query.batch);
+        while (batches.next()) {
+            long[] values = batches.values();
+            for (int i = 0, length = batches.length(); i < length; i++) {
+                sum += values[i];
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long scanArray() {
+        long sum = 0;
+        for (long value : array) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long scanList() {
+        long sum = 0;
+        for (Long value : list) {
+            sum += value;
+        }
+        return sum;
+    }
+
+    private long from(Query query) {
+        return FIRST + (long) (query.random.nextDouble() * (array[count - 1] - FIRST - window));
+    }
+
+    @Benchmark
+    public long rangeColumn(Query query) {
+        long from = from(query);
+        return column.countBetween(from, from + window);
+    }
+
+    @Benchmark
+    public long rangeArray(Query query) {
+        long from = from(query);
+        return lowerBound(array, from + window) - lowerBound(array, from);
+    }
+
+    @Benchmark
+    public long rangeList(Query query) {
+        long from = from(query);
+        return lowerBound(list, from + window) - lowerBound(list, from);
+    }
+
+    // first index holding a value >= key, Arrays.binarySearch lands on any one of several equal values
+    private static int lowerBound(long[] values, long key) {
+        int low = 0;
+        int high = values.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int lowerBound(List<Long> values, long key) {
+        int low = 0;
+        int high = values.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (values.get(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,290 @@
+package jol;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Retained size of the collections we use, measured with {@link GraphLayout} for a range of element counts
+ * and initial capacities, so the numbers can be tracked between JDK and library upgrades.
+ * <p>
+ * {@code java jol.FootprintHarness [--counts=0,1,10] [--format=csv|json] [--out=file] [--budgets=file]}
+ * <p>
+ * The budgets file holds {@code <Structure>.<count>.max.bytes.per.entry} and
+ * {@code <Structure>.<count>.max.total.bytes} properties, any measurement at that count above them is reported and
+ * the run exits with status 1. Budgets are per count because fixed overhead dominates small collections, a budget
+ * loose enough for one entry would never catch a regression at a thousand. There is an example in
+ * {@code jol/footprint-budgets.properties}.
+ */
+public class FootprintHarness {
+
+    private static final int[] DEFAULT_COUNTS = {0, 1, 10, 100, 1_000, 10_000, 100_000, 1_000_000};
+    // well outside the Integer cache, so every element is its own object
+    private static final int FIRST_ELEMENT = 1_000_000;
+
+    enum Capacity {
+        DEFAULT,
+        /**
+         * Constructor argument equal to the element count.
+         */
+        SIZED,
+        /**
+         * {@code HashMap.newHashMap(count)} and friends, which take the load factor into account.
+         */
+        EXPECTED,
+        /**
+         * Constructor argument four times the element count, what over-provisioning costs.
+         */
+        OVERSIZED;
+
+        int of(int count) {
+            return this == OVERSIZED ? count * 4 : count;
+        }
+    }
+
+    enum Structure {
+        ARRAY_LIST("ArrayList", Capacity.DEFAULT, Capacity.SIZED, Capacity.OVERSIZED) {
+            @Override
+            Object build(Integer[] elements, int count, Capacity capacity) {
+                List<Integer> list = capacity == Capacity.DEFAULT ? new ArrayList<>() : new ArrayList<>(capacity.of(count));
+                list.addAll(Arrays.asList(elements).subList(0, count));
+                return list;
+            }
+        },
+        HASH_MAP("HashMap", Capacity.values()) {
+            @Override
+            Object build(Integer[] elements, int count, Capacity capacity) {
+                Map<Integer, Integer> map = switch (capacity) {
+                    case DEFAULT -> new HashMap<>();
+                    case SIZED, OVERSIZED -> new HashMap<>(capacity.of(count));
+                    case EXPECTED -> HashMap.newHashMap(count);
+                };
+                for (int i = 0; i < count; i++) {
+                    map.put(elements[i], elements[i]);
+                }
+                return map;
+            }
+        },
+        HASH_SET("HashSet", Capacity.values()) {
+            @Override
+            Object build(Integer[] elements, int count, Capacity capacity) {
+                Set<Integer> set = switch (capacity) {
+                    case DEFAULT -> new HashSet<>();
+                    case SIZED, OVERSIZED -> new HashSet<>(capacity.of(count));
+                    case EXPECTED -> HashSet.newHashSet(count);
+                };
+                set.addAll(Arrays.asList(elements).subList(0, count));
+                return set;
+            }
+        },
+        CONCURRENT_HASH_MAP("ConcurrentHashMap", Capacity.DEFAULT, Capacity.SIZED, Capacity.OVERSIZED) {
+            @Override
+            Object build(Integer[] elements, int count, Capacity capacity) {
+                Map<Integer, Integer> map = capacity == Capacity.DEFAULT
+                        ? new ConcurrentHashMap<>() : new ConcurrentHashMap<>(capacity.of(count));
+                for (int i = 0; i < count; i++) {
+                    map.put(elements[i], elements[i]);
+                }
+                return map;
+            }
+        },
+        IMMUTABLE_LIST("ImmutableList", Capacity.DEFAULT) {
+            @Override
+            Object build(Integer[] elements, int count, Capacity capacity) {
+                return ImmutableList.copyOf(Arrays.asList(elements).subList(0, count));
+            }
+        },
+        IMMUTABLE_SET("ImmutableSet", Capacity.DEFAULT) {
+            @Override
+            Object build(Integer[] elements, int count, Capacity capacity) {
+                return ImmutableSet.copyOf(Arrays.asList(elements).subList(0, count));
+            }
+        },
+        IMMUTABLE_MAP("ImmutableMap", Capacity.DEFAULT) {
+            @Override
+            Object build(Integer[] elements, int count, Capacity capacity) {
+                ImmutableMap.Builder<Integer, Integer> builder = ImmutableMap.builder();
+                for (int i = 0; i < count; i++) {
+                    builder.put(elements[i], elements[i]);
+                }
+                return builder.build();
+            }
+        },
+        INT_ARRAY("int[]", Capacity.DEFAULT) {
+            @Override
+            Object build(Integer[] elements, int count, Capacity capacity) {
+                int[] array = new int[count];
+                for (int i = 0; i < count; i++) {
+                    array[i] = elements[i];
+                }
+                return array;
+            }
+
+            @Override
+            long payloadBytes(int count, long boxedSize) {
+                return (long) count * Integer.BYTES;
+            }
+        },
+        LONG_ARRAY("long[]", Capacity.DEFAULT) {
+            @Override
+            Object build(Integer[] elements, int count, Capacity capacity) {
+                long[] array = new long[count];
+                for (int i = 0; i < count; i++) {
+                    array[i] = elements[i];
+                }
+                return array;
+            }
+
+            @Override
+            long payloadBytes(int count, long boxedSize) {
+                return (long) count * Long.BYTES;
+            }
+        };
+
+        private final String label;
+        private final Capacity[] capacities;
+
+        Structure(String label, Capacity... capacities) {
+            this.label = label;
+            this.capacities = capacities;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+
+        abstract Object build(Integer[] elements, int count, Capacity capacity);
+
+        /**
+         * What the elements themselves take, maps use the same object as key and value so it is counted once.
+         */
+        long payloadBytes(int count, long boxedSize) {
+            return count * boxedSize;
+        }
+    }
+
+    record Measurement(Structure structure, Capacity capacity, int count, long totalBytes, long payloadBytes) {
+
+        long overheadBytes() {
+            return totalBytes - payloadBytes;
+        }
+
+        double overheadPerEntry() {
+            return count == 0 ? overheadBytes() : (double) overheadBytes() / count;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseOptions(args);
+        int[] counts = options.containsKey("counts")
+                ? Arrays.stream(options.get("counts").split(",")).mapToInt(s -> Integer.parseInt(s.trim())).toArray()
+                : DEFAULT_COUNTS;
+        List<Measurement> measurements = measure(counts);
+
+        String format = options.getOrDefault("format", "csv");
+        if (options.containsKey("out")) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(Path.of(options.get("out"))))) {
+                write(measurements, format, out);
+            }
+        } else {
+            write(measurements, format, System.out);
+        }
+
+        if (options.containsKey("budgets")) {
+            Properties budgets = new Properties();
+            try (Reader reader = Files.newBufferedReader(Path.of(options.get("budgets")))) {
+                budgets.load(reader);
+            }
+            List<String> violations = checkBudgets(measurements, budgets);
+            violations.forEach(System.err::println);
+            if (!violations.isEmpty()) {
+                System.exit(1);
+            }
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+
+    static List<Measurement> measure(int[] counts) {
+        int max = Arrays.stream(counts).max().orElse(0);
+        Integer[] elements = new Integer[max];
+        for (int i = 0; i < max; i++) {
+            elements[i] = FIRST_ELEMENT + i;
+        }
+        long boxedSize = GraphLayout.parseInstance(Integer.valueOf(FIRST_ELEMENT)).totalSize();
+        List<Measurement> measurements = new ArrayList<>();
+        for (Structure structure : Structure.values()) {
+            for (Capacity capacity : structure.capacities) {
+                for (int count : counts) {
+                    Object instance = structure.build(elements, count, capacity);
+                    long total = GraphLayout.parseInstance(instance).totalSize();
+                    measurements.add(new Measurement(structure, capacity, count, total,
+                            structure.payloadBytes(count, boxedSize)));
+                }
+            }
+        }
+        return measurements;
+    }
+
+    static List<String> checkBudgets(List<Measurement> measurements, Properties budgets) {
+        List<String> violations = new ArrayList<>();
+        for (Measurement m : measurements) {
+            String prefix = m.structure() + "." + m.count();
+            String perEntry = budgets.getProperty(prefix + ".max.bytes.per.entry");
+            if (perEntry != null && m.count() > 0 && m.overheadPerEntry() > Double.parseDouble(perEntry.trim())) {
+                violations.add(String.format(Locale.ROOT, "%s/%s/%d: %.2f bytes overhead per entry exceeds budget of %s",
+                        m.structure(), m.capacity(), m.count(), m.overheadPerEntry(), perEntry.trim()));
+            }
+            String total = budgets.getProperty(prefix + ".max.total.bytes");
+            if (total != null && m.totalBytes() > Long.parseLong(total.trim())) {
+                violations.add(String.format(Locale.ROOT, "%s/%s/%d: %d bytes exceeds budget of %s",
+                        m.structure(), m.capacity(), m.count(), m.totalBytes(), total.trim()));
+            }
+        }
+        return violations;
+    }
+
+    static void write(List<Measurement> measurements, String format, PrintStream out) {
+        switch (format) {
+            case "csv" -> {
+                out.println("structure,capacity,count,totalBytes,payloadBytes,overheadBytes,overheadPerEntry");
+                for (Measurement m : measurements) {
+                    out.printf(Locale.ROOT, "%s,%s,%d,%d,%d,%d,%.2f%n", m.structure(), m.capacity(), m.count(),
+                            m.totalBytes(), m.payloadBytes(), m.overheadBytes(), m.overheadPerEntry());
+                }
+            }
+            case "json" -> {
+                out.println("[");
+                for (int i = 0; i < measurements.size(); i++) {
+                    Measurement m = measurements.get(i);
+                    out.printf(Locale.ROOT, "  {\"structure\": \"%s\", \"capacity\": \"%s\", \"count\": %d, "
+                                    + "\"totalBytes\": %d, \"payloadBytes\": %d, \"overheadBytes\": %d, "
+                                    + "\"overheadPerEntry\": %.2f}%s%n",
+                            m.structure(), m.capacity(), m.count(), m.totalBytes(), m.payloadBytes(),
+                            m.overheadBytes(), m.overheadPerEntry(), i < measurements.size() - 1 ? "," : "");
+                }
+                out.println("]");
+            }
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        }
+    }
+}